@@ -1,15 +1,34 @@
 package com.github.artemdvn;
 
+import com.github.artemdvn.core.CodecRegistry;
 import com.github.artemdvn.core.Deserializer;
+import com.github.artemdvn.core.IncrementalDecoder;
 import com.github.artemdvn.core.Serializer;
+import com.github.artemdvn.core.SerializerOptions;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class CustomSerializer {
 
-    private Serializer serializer = new Serializer();
-    private Deserializer deserializer = new Deserializer();
+    private final Serializer serializer;
+    private final Deserializer deserializer;
+
+    public CustomSerializer() {
+        this(SerializerOptions.DEFAULT);
+    }
+
+    public CustomSerializer(SerializerOptions options) {
+        CodecRegistry registry = new CodecRegistry(options);
+        this.serializer = new Serializer(registry);
+        this.deserializer = new Deserializer(registry);
+    }
 
     public void serialize(OutputStream outputStream, Object obj) {
         serializer.serialize(outputStream, obj);
@@ -18,4 +37,48 @@ public class CustomSerializer {
     public <T> T deserialize(InputStream inputStream, Class<T> clazz) {
         return deserializer.deserialize(inputStream, clazz);
     }
+
+    public int serializedSize(Object obj) {
+        return serializer.serializedSize(obj);
+    }
+
+    public void writeAll(OutputStream outputStream, Iterable<?> objects) {
+        serializer.writeAll(outputStream, objects);
+    }
+
+    public void serializeAll(OutputStream outputStream, List<?> objects) {
+        serializer.serializeAll(outputStream, objects);
+    }
+
+    public void serializeAll(OutputStream outputStream, List<?> objects, ForkJoinPool pool) {
+        serializer.serializeAll(outputStream, objects, pool);
+    }
+
+    public <T> Iterator<T> readAll(InputStream inputStream, Class<T> clazz) {
+        return deserializer.readAll(inputStream, clazz);
+    }
+
+    public <T> IncrementalDecoder<T> newDecoder(Class<T> clazz) {
+        return deserializer.newDecoder(clazz);
+    }
+
+    public <T> Stream<T> stream(ByteBuffer buffer, Class<T> clazz) {
+        return deserializer.stream(buffer, clazz);
+    }
+
+    public <T> Stream<T> stream(byte[] data, Class<T> clazz) {
+        return deserializer.stream(data, clazz);
+    }
+
+    public <T> Stream<T> stream(Path file, Class<T> clazz) {
+        return deserializer.stream(file, clazz);
+    }
+
+    public int serialize(ByteBuffer buffer, Object obj) {
+        return serializer.serialize(buffer, obj);
+    }
+
+    public <T> T deserialize(ByteBuffer buffer, Class<T> clazz) {
+        return deserializer.deserialize(buffer, clazz);
+    }
 }
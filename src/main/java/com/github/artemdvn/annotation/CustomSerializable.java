@@ -0,0 +1,14 @@
+package com.github.artemdvn.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Marks a class for which CustomSerializableProcessor generates a codec at build time. The generated code assigns
+//fields directly or through setters, so the class may not declare final instance fields; leave such classes
+//unannotated and they are served by the runtime accessors
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CustomSerializable {
+}
@@ -0,0 +1,13 @@
+package com.github.artemdvn.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Stable numeric tag written instead of the field name with FieldNaming.IDS, must be positive and unique per class
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface FieldId {
+    int value();
+}
@@ -0,0 +1,62 @@
+package com.github.artemdvn.core;
+
+//Reads from a byte array slice
+public class ArrayByteInput extends ByteInput {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    public ArrayByteInput(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public ArrayByteInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public int remaining() {
+        return limit - position;
+    }
+
+    @Override
+    public byte readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    @Override
+    public int readIntLE() {
+        require(4);
+        int value = (buffer[position] & 0xFF)
+                | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16
+                | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    @Override
+    public String readUtf8(int length) {
+        require(length);
+        String value = Utf8.decode(buffer, position, length);
+        position += length;
+        return value;
+    }
+
+    private void require(int length) {
+        if (length < 0) {
+            throw invalidLength(length);
+        }
+        if (limit - position < length) {
+            throw endOfInput();
+        }
+    }
+}
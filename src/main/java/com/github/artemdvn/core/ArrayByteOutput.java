@@ -0,0 +1,129 @@
+package com.github.artemdvn.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+//Growable byte array sink
+public class ArrayByteOutput extends ByteOutput {
+
+    private byte[] buffer;
+    private int position;
+
+    public ArrayByteOutput() {
+        this(256);
+    }
+
+    public ArrayByteOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    @Override
+    public int size() {
+        return position;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        position = 0;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(buffer, 0, position);
+    }
+
+    public void writeTo(ByteOutput target) {
+        target.writeBytes(buffer, 0, position);
+    }
+
+    public void writeTo(ByteBuffer target) {
+        target.put(buffer, 0, position);
+    }
+
+    @Override
+    public void writeUtf8(CharSequence chars) {
+        ensureCapacity(chars.length() * 3);
+        position = Utf8.encode(chars, buffer, position);
+    }
+
+    //copies the rest of the stream, growing the buffer as needed
+    public void writeFrom(InputStream inputStream) throws IOException {
+        int count;
+        do {
+            ensureCapacity(1);
+            count = inputStream.read(buffer, position, buffer.length - position);
+            if (count > 0) {
+                position += count;
+            }
+        } while (count >= 0);
+    }
+
+    public String toString(Charset charset) {
+        return new String(buffer, 0, position, charset);
+    }
+
+    //the backing array, valid up to size() until the next write
+    byte[] array() {
+        return buffer;
+    }
+
+    @Override
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    @Override
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    @Override
+    public void writeIntLE(int value) {
+        ensureCapacity(4);
+        buffer[position++] = (byte) value;
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 24);
+    }
+
+    public void ensureCapacity(int required) {
+        if (buffer.length - position < required) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + required));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.artemdvn.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Reads in place from a heap or direct ByteBuffer, advancing its position
+public class BufferByteInput extends ByteInput {
+
+    private final ByteBuffer buffer;
+    //the caller's byte order is left untouched, fixed width values are swapped instead
+    private final boolean bigEndian;
+    //copy target for strings in direct buffers, reused across reads
+    private byte[] scratch;
+
+    public BufferByteInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public byte readByte() {
+        require(1);
+        return buffer.get();
+    }
+
+    @Override
+    public int readIntLE() {
+        require(4);
+        int value = buffer.getInt();
+        return bigEndian ? Integer.reverseBytes(value) : value;
+    }
+
+    @Override
+    public long readLongLE() {
+        require(8);
+        long value = buffer.getLong();
+        return bigEndian ? Long.reverseBytes(value) : value;
+    }
+
+    @Override
+    public String readUtf8(int length) {
+        require(length);
+        String value;
+        if (buffer.hasArray()) {
+            value = Utf8.decode(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+            buffer.position(buffer.position() + length);
+        } else {
+            if (scratch == null || scratch.length < length) {
+                scratch = new byte[Math.max(length, 64)];
+            }
+            buffer.get(scratch, 0, length);
+            value = Utf8.decode(scratch, 0, length);
+        }
+        return value;
+    }
+
+    private void require(int length) {
+        if (length < 0) {
+            throw invalidLength(length);
+        }
+        if (buffer.remaining() < length) {
+            throw endOfInput();
+        }
+    }
+}
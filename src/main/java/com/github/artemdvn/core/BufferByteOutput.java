@@ -0,0 +1,67 @@
+package com.github.artemdvn.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Writes in place into a heap or direct ByteBuffer, advancing its position
+public class BufferByteOutput extends ByteOutput {
+
+    private ByteBuffer buffer;
+    private int start;
+    //the caller's byte order is left untouched, fixed width values are swapped instead
+    private boolean bigEndian;
+
+    public BufferByteOutput(ByteBuffer buffer) {
+        target(buffer);
+    }
+
+    //points a pooled output at the next buffer, or at none (null) once the message is written
+    BufferByteOutput target(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.start = buffer != null ? buffer.position() : 0;
+        this.bigEndian = buffer != null && buffer.order() == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return buffer.position() - start;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.position(start);
+    }
+
+    @Override
+    public void writeByte(int value) {
+        buffer.put((byte) value);
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    public void writeUtf8(CharSequence chars) {
+        if (buffer.hasArray() && buffer.remaining() >= chars.length() * 3) {
+            int start = buffer.arrayOffset() + buffer.position();
+            int end = Utf8.encode(chars, buffer.array(), start);
+            buffer.position(buffer.position() + end - start);
+        } else {
+            Utf8.encode(chars, buffer);
+        }
+    }
+
+    @Override
+    public void writeIntLE(int value) {
+        buffer.putInt(bigEndian ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    public void writeLongLE(long value) {
+        buffer.putLong(bigEndian ? Long.reverseBytes(value) : value);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Reads the primitive encodings written by ByteOutput
+public abstract class ByteInput {
+
+    //objects read so far in this message, indexed by reference id, when reference tracking is on
+    private List<Object> references;
+    //strings read so far in this message, indexed by their position in the string table
+    private List<String> strings;
+
+    public abstract byte readByte();
+
+    public abstract String readUtf8(int length);
+
+    //bytes left in the message: the rest of an array or buffer, what the size limit still allows for a stream
+    public abstract int remaining();
+
+    public void trackReferences(Object root) {
+        references = new ArrayList<>();
+        references.add(root);
+    }
+
+    public void trackStrings() {
+        strings = new ArrayList<>();
+    }
+
+    public boolean isTrackingReferences() {
+        return references != null;
+    }
+
+    public void registerReference(Object obj) {
+        references.add(obj);
+    }
+
+    public Object reference(int id) {
+        if (references == null || id < 0 || id >= references.size()) {
+            throw new DeserializationException("Deserialization exception: unknown object reference " + id);
+        }
+        return references.get(id);
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new DeserializationException("Deserialization exception: malformed varint");
+    }
+
+    public long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new DeserializationException("Deserialization exception: malformed varint");
+    }
+
+    //element count or byte length; every element takes at least a byte, so neither can exceed what is left
+    public int readLength() {
+        int length = readVarInt();
+        if (length < 0 || length > remaining()) {
+            throw invalidLength(length);
+        }
+        return length;
+    }
+
+    public int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readIntLE() {
+        return (readByte() & 0xFF)
+                | (readByte() & 0xFF) << 8
+                | (readByte() & 0xFF) << 16
+                | (readByte() & 0xFF) << 24;
+    }
+
+    public long readLongLE() {
+        return (readIntLE() & 0xFFFFFFFFL) | (long) readIntLE() << 32;
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readIntLE());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLongLE());
+    }
+
+    public String readString() {
+        int header = readVarInt();
+        if (header == 0) {
+            return null;
+        }
+        if (strings == null) {
+            return readUtf8(header - 1);
+        }
+        if (header == 1) {
+            String value = readUtf8(readVarInt());
+            strings.add(value);
+            return value;
+        }
+        int index = header - 2;
+        if (index < 0 || index >= strings.size()) {
+            throw new DeserializationException("Deserialization exception: unknown string reference " + index);
+        }
+        return strings.get(index);
+    }
+
+    protected static DeserializationException invalidLength(int length) {
+        return new DeserializationException("Deserialization exception: invalid length " + Integer.toUnsignedString(length));
+    }
+
+    protected static DeserializationException endOfInput() {
+        return new DeserializationException("Deserialization exception: unexpected end of input");
+    }
+}
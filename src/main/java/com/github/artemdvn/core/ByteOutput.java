@@ -0,0 +1,166 @@
+package com.github.artemdvn.core;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+//Primitive encodings of the binary format on top of a byte sink
+public abstract class ByteOutput {
+
+    //maps that held more entries than this in a message are dropped rather than kept for the next one
+    private static final int MAX_KEPT_ENTRIES = 1 << 12;
+
+    //objects already written in this message, by identity, when reference tracking is on
+    private IdentityHashMap<Object, Integer> references;
+    //distinct strings already written in this message, when the string table is on
+    private HashMap<String, Integer> strings;
+    //the maps are kept empty between messages, so that a reused output allocates them once
+    private boolean trackingReferences;
+    private boolean trackingStrings;
+
+    public abstract int size();
+
+    public abstract void writeByte(int value);
+
+    public abstract void writeBytes(byte[] bytes, int offset, int length);
+
+    public void reset() {
+        stopTracking();
+    }
+
+    public void trackStrings() {
+        if (strings == null) {
+            strings = new HashMap<>();
+        }
+        trackingStrings = true;
+    }
+
+    public void trackReferences(Object root) {
+        if (references == null) {
+            references = new IdentityHashMap<>();
+        }
+        references.put(root, 0);
+        trackingReferences = true;
+    }
+
+    //at the end of each message, the objects and strings of the message are not held on to
+    public void stopTracking() {
+        if (references != null) {
+            references = references.size() > MAX_KEPT_ENTRIES ? null : clear(references);
+        }
+        if (strings != null) {
+            strings = strings.size() > MAX_KEPT_ENTRIES ? null : clear(strings);
+        }
+        trackingReferences = false;
+        trackingStrings = false;
+    }
+
+    public boolean isTrackingReferences() {
+        return trackingReferences;
+    }
+
+    //returns the id of an object written before, or -1 after registering a new one
+    public int reference(Object obj) {
+        Integer id = references.putIfAbsent(obj, references.size());
+        return id == null ? -1 : id;
+    }
+
+    public static int varIntSize(int value) {
+        return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+
+    public static int varLongSize(long value) {
+        return value == 0 ? 1 : (70 - Long.numberOfLeadingZeros(value)) / 7;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    //unsigned LEB128
+    public void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    public void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    //zigzag so that small negative numbers stay short
+    public void writeSignedVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeIntLE(int value) {
+        writeByte(value);
+        writeByte(value >>> 8);
+        writeByte(value >>> 16);
+        writeByte(value >>> 24);
+    }
+
+    public void writeLongLE(long value) {
+        writeIntLE((int) value);
+        writeIntLE((int) (value >>> 32));
+    }
+
+    public void writeFloat(float value) {
+        writeIntLE(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        writeLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    //without the string table: 0 for null, otherwise length + 1 and the UTF-8 bytes
+    //with the string table: 0 for null, 1 for a new string followed by length and bytes, index + 2 for a repeat
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        if (trackingStrings) {
+            Integer index = strings.putIfAbsent(value, strings.size());
+            if (index != null) {
+                writeVarInt(index + 2);
+                return;
+            }
+            writeVarInt(1);
+            writeVarInt(Utf8.length(value));
+            writeUtf8(value);
+            return;
+        }
+        writeVarInt(Utf8.length(value) + 1);
+        writeUtf8(value);
+    }
+
+    //fields of an object and its end marker; sinks that only measure take the plan's measuring path instead
+    public void writeObject(CodecPlan plan, Object obj) throws ReflectiveOperationException {
+        plan.writeBinary(obj, this);
+    }
+
+    //UTF-8 bytes of the chars, without a length; sinks with an array or buffer encode into it directly
+    public void writeUtf8(CharSequence chars) {
+        Utf8.encode(chars, this);
+    }
+
+    private static <M extends Map<?, ?>> M clear(M map) {
+        map.clear();
+        return map;
+    }
+}
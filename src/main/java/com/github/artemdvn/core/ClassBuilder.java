@@ -0,0 +1,411 @@
+package com.github.artemdvn.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Minimal class file writer for the classes spun at runtime: a constant pool, static fields and methods
+//made of the handful of instructions the spun accessors and plans need. Names are internal (slash separated)
+final class ClassBuilder {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ILOAD = 0x15;
+    static final int ALOAD = 0x19;
+    static final int I2C = 0x92;
+    static final int I2S = 0x93;
+    static final int RETURN = 0xB1;
+    static final int GETSTATIC = 0xB2;
+    static final int PUTSTATIC = 0xB3;
+    static final int GETFIELD = 0xB4;
+    static final int PUTFIELD = 0xB5;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int CHECKCAST = 0xC0;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int TABLESWITCH = 0xAA;
+
+    //Java 8 class files, branches carry StackMapTable frames
+    private static final int MAJOR_VERSION = 52;
+    private static final int MAX_CODE_LENGTH = 0xFFFF;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final String name;
+    private final String superName;
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<Code> methods = new ArrayList<>();
+    private final List<String[]> constants = new ArrayList<>();
+
+    ClassBuilder(String name, String superName) {
+        this.name = name;
+        this.superName = superName;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void field(int access, String fieldName, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(fieldName));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        fields.add(bytes.toByteArray());
+    }
+
+    //private static final field of the given class or array descriptor, set from the index-th value handed to
+    //SpunClasses.define; the superclass has to provide the protected static constant(Class, int) that hands it over
+    void constant(String fieldName, String className) {
+        field(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, fieldName, descriptor(className));
+        constants.add(new String[]{fieldName, className});
+    }
+
+    //class constants name arrays by their descriptor, fields and signatures need it for every class
+    static String descriptor(String className) {
+        return className.charAt(0) == '[' ? className : 'L' + className + ';';
+    }
+
+    //maxLocals covers this and the parameters plus any local the code stores to
+    Code method(int access, String methodName, String descriptor, int maxLocals) {
+        Code code = new Code(access, utf8(methodName), utf8(descriptor), maxLocals);
+        methods.add(code);
+        return code;
+    }
+
+    //the no-arg constructor calling the one of the superclass
+    void constructor() {
+        Code code = method(ACC_PUBLIC, "<init>", "()V", 1);
+        code.local(ALOAD, 0);
+        code.member(INVOKESPECIAL, superName, "<init>", "()V");
+        code.op(RETURN);
+    }
+
+    byte[] toByteArray() {
+        if (!constants.isEmpty()) {
+            staticInitializer();
+        }
+        int thisClass = classConstant(name);
+        int superClass = classConstant(superName);
+        int stackMapTable = utf8("StackMapTable");
+        int codeAttribute = utf8("Code");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(fields.size());
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (Code method : methods) {
+                method.writeTo(out, codeAttribute, stackMapTable);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void staticInitializer() {
+        Code code = method(ACC_STATIC, "<clinit>", "()V", 0);
+        for (int i = 0; i < constants.size(); i++) {
+            String[] constant = constants.get(i);
+            code.loadClass(name);
+            code.push(i);
+            code.member(INVOKESTATIC, superName, "constant",
+                    "(Ljava/lang/Class;I)Ljava/lang/Object;");
+            code.type(CHECKCAST, constant[1]);
+            code.field(PUTSTATIC, name, constant[0], descriptor(constant[1]));
+        }
+        code.op(RETURN);
+    }
+
+    static int loadOpcode(char descriptor) {
+        switch (descriptor) {
+            case 'J':
+                return 0x16;
+            case 'F':
+                return 0x17;
+            case 'D':
+                return 0x18;
+            case 'L':
+            case '[':
+                return ALOAD;
+            default:
+                return ILOAD;
+        }
+    }
+
+    static int returnOpcode(char descriptor) {
+        switch (descriptor) {
+            case 'V':
+                return RETURN;
+            case 'J':
+                return 0xAD;
+            case 'F':
+                return 0xAE;
+            case 'D':
+                return 0xAF;
+            case 'L':
+            case '[':
+                return 0xB0;
+            default:
+                return 0xAC;
+        }
+    }
+
+    static int slots(char descriptor) {
+        return descriptor == 'J' || descriptor == 'D' ? 2 : 1;
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, CONSTANT_UTF8, out -> out.writeUTF(value));
+    }
+
+    private int integerConstant(int value) {
+        return constant("I" + value, CONSTANT_INTEGER, out -> out.writeInt(value));
+    }
+
+    private int classConstant(String className) {
+        int nameIndex = utf8(className);
+        return constant("C" + className, CONSTANT_CLASS, out -> out.writeShort(nameIndex));
+    }
+
+    private int memberConstant(int tag, String owner, String memberName, String descriptor) {
+        int ownerIndex = classConstant(owner);
+        int nameIndex = utf8(memberName);
+        int descriptorIndex = utf8(descriptor);
+        int nameAndType = constant("N" + memberName + ' ' + descriptor, CONSTANT_NAME_AND_TYPE, out -> {
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+        return constant(tag + owner + '.' + memberName + ' ' + descriptor, tag, out -> {
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    private int constant(String key, int tag, PoolEntry entry) {
+        Integer index = poolIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        DataOutputStream out = new DataOutputStream(pool);
+        try {
+            out.writeByte(tag);
+            entry.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        poolIndex.put(key, poolCount);
+        return poolCount++;
+    }
+
+    private interface PoolEntry {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    final class Code {
+
+        //deep enough for any of the spun methods: a receiver and a few arguments, long and double taking two
+        private static final int MAX_STACK = 8;
+
+        private final int access;
+        private final int nameIndex;
+        private final int descriptorIndex;
+        private final int maxLocals;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        //branch targets, each gets a frame with the locals of the method entry and an empty stack
+        private final List<Integer> frames = new ArrayList<>();
+        //switch slots and the offsets written into them once the code is complete
+        private final List<int[]> patches = new ArrayList<>();
+
+        private Code(int access, int nameIndex, int descriptorIndex, int maxLocals) {
+            this.access = access;
+            this.nameIndex = nameIndex;
+            this.descriptorIndex = descriptorIndex;
+            this.maxLocals = maxLocals;
+        }
+
+        int position() {
+            return code.size();
+        }
+
+        void op(int opcode) {
+            code.write(opcode);
+        }
+
+        //no wide locals, the spun methods only use their parameters
+        void local(int opcode, int index) {
+            if (index < 0 || index > 0xFF) {
+                throw new IllegalArgumentException("Local index out of range: " + index);
+            }
+            code.write(opcode);
+            code.write(index);
+        }
+
+        void push(int value) {
+            if (value == (short) value) {
+                code.write(SIPUSH);
+                u2(value);
+            } else {
+                code.write(LDC_W);
+                u2(integerConstant(value));
+            }
+        }
+
+        void loadClass(String className) {
+            code.write(LDC_W);
+            u2(classConstant(className));
+        }
+
+        void type(int opcode, String className) {
+            code.write(opcode);
+            u2(classConstant(className));
+        }
+
+        void field(int opcode, String owner, String fieldName, String descriptor) {
+            code.write(opcode);
+            u2(memberConstant(CONSTANT_FIELDREF, owner, fieldName, descriptor));
+        }
+
+        void member(int opcode, String owner, String methodName, String descriptor) {
+            code.write(opcode);
+            u2(memberConstant(CONSTANT_METHODREF, owner, methodName, descriptor));
+        }
+
+        //tableswitch over 0..count-1, the targets are filled in by target() as the cases are emitted;
+        //returns the position of the instruction
+        int tableswitch(int count) {
+            int start = position();
+            code.write(TABLESWITCH);
+            while (code.size() % 4 != 0) {
+                code.write(0);
+            }
+            u4(0);
+            u4(0);
+            u4(count - 1);
+            for (int i = 0; i < count; i++) {
+                u4(0);
+            }
+            return start;
+        }
+
+        //points case index (-1 for default) of the switch at the current position
+        void target(int switchStart, int index) {
+            int padded = (switchStart + 4) & ~3;
+            int slot = index < 0 ? padded : padded + 12 + index * 4;
+            int offset = position() - switchStart;
+            patches.add(new int[]{slot, offset});
+            frame();
+        }
+
+        private void frame() {
+            int target = position();
+            if (frames.isEmpty() || frames.get(frames.size() - 1) != target) {
+                frames.add(target);
+            }
+        }
+
+        private void u2(int value) {
+            code.write(value >>> 8);
+            code.write(value);
+        }
+
+        private void u4(int value) {
+            u2(value >>> 16);
+            u2(value);
+        }
+
+        private void writeTo(DataOutputStream out, int codeAttribute, int stackMapTable) throws IOException {
+            byte[] bytes = code.toByteArray();
+            if (bytes.length > MAX_CODE_LENGTH) {
+                throw new IllegalStateException("Method code too large: " + bytes.length + " bytes");
+            }
+            for (int[] patch : patches) {
+                int offset = patch[1];
+                bytes[patch[0]] = (byte) (offset >>> 24);
+                bytes[patch[0] + 1] = (byte) (offset >>> 16);
+                bytes[patch[0] + 2] = (byte) (offset >>> 8);
+                bytes[patch[0] + 3] = (byte) offset;
+            }
+            byte[] frameBytes = stackMapFrames();
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            int attributes = frameBytes == null ? 0 : 6 + frameBytes.length;
+            out.writeInt(12 + bytes.length + attributes);
+            out.writeShort(MAX_STACK);
+            out.writeShort(maxLocals);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(0);
+            if (frameBytes == null) {
+                out.writeShort(0);
+                return;
+            }
+            out.writeShort(1);
+            out.writeShort(stackMapTable);
+            out.writeInt(frameBytes.length);
+            out.write(frameBytes);
+        }
+
+        //same_frame entries, the locals never change from those of the method entry
+        private byte[] stackMapFrames() throws IOException {
+            if (frames.isEmpty()) {
+                return null;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(frames.size());
+            int previous = -1;
+            for (int target : frames) {
+                int delta = target - previous - 1;
+                if (delta < 64) {
+                    out.writeByte(delta);
+                } else {
+                    out.writeByte(251);
+                    out.writeShort(delta);
+                }
+                previous = target;
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.annotation.CustomSerializable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+public class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            GeneratedCodec generatedCodec = findGeneratedCodec(type);
+            if (generatedCodec != null) {
+                return new ClassMetadata(type, generatedCodec.fields(), generatedCodec);
+            }
+            return new ClassMetadata(type, reflectFields(type), null);
+        }
+    };
+
+    private final Class<?> type;
+    private final FieldMetadata[] fields;
+    private final Map<String, FieldMetadata> fieldsByName;
+    //null unless generated at build time
+    private final GeneratedCodec generatedCodec;
+
+    private ClassMetadata(Class<?> type, FieldMetadata[] fields, GeneratedCodec generatedCodec) {
+        this.type = type;
+        this.fields = fields;
+        this.generatedCodec = generatedCodec;
+        Map<String, FieldMetadata> fieldMap = new HashMap<>();
+        for (FieldMetadata field : fields) {
+            fieldMap.put(field.getName(), field);
+        }
+        this.fieldsByName = Collections.unmodifiableMap(fieldMap);
+    }
+
+    public static ClassMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public FieldMetadata[] getFields() {
+        return fields;
+    }
+
+    public FieldMetadata getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    public boolean isGenerated() {
+        return generatedCodec != null;
+    }
+
+    //the plan generated at build time, null for the other types
+    GeneratedPlan generatedPlan(FieldCodec[] codecs, boolean fieldIds) {
+        return generatedCodec != null ? generatedCodec.plan(codecs, fieldIds) : null;
+    }
+
+    private static FieldMetadata[] reflectFields(Class<?> type) {
+        List<FieldMetadata> fieldList = new ArrayList<>();
+        SpunClasses.Loader loader = SpunClasses.loader(type);
+        for (Field field : type.getDeclaredFields()) {
+            //static and compiler-generated fields are not part of object state
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            fieldList.add(FieldMetadata.forField(field, loader));
+        }
+        return fieldList.toArray(new FieldMetadata[0]);
+    }
+
+    private static GeneratedCodec findGeneratedCodec(Class<?> type) {
+        if (!type.isAnnotationPresent(CustomSerializable.class)) {
+            return null;
+        }
+        //once per annotated type, the codecs are few and cheap to instantiate
+        Iterator<GeneratedCodec> codecs = ServiceLoader.load(GeneratedCodec.class, type.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!codecs.hasNext()) {
+                    break;
+                }
+                GeneratedCodec codec = codecs.next();
+                if (codec.type() == type) {
+                    return codec;
+                }
+            } catch (ServiceConfigurationError e) {
+                //a stale entry, e.g. of a class since removed, does not hide the others
+            }
+        }
+        //annotated but compiled without the processor, fall back to reflection
+        return null;
+    }
+}
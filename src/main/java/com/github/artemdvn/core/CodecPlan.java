@@ -0,0 +1,199 @@
+package com.github.artemdvn.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CodecPlan {
+
+    //zero-length field name or zero id closing a binary object
+    private static final int END = 0;
+    private static final int MAX_FIELD_ID = 0xFFFF;
+
+    private final Class<?> type;
+    private final Instantiator instantiator;
+    private final FieldCodec[] fieldCodecs;
+    private final Map<String, Integer> indexByName;
+    //position in fieldCodecs for each field id, -1 for the ids not in use
+    private final int[] indexById;
+    private final boolean fieldIds;
+    //size of the fields that are always written with the same length, plus the end marker
+    private final int fixedBinarySize;
+    private final FieldCodec[] variableSizeFieldCodecs;
+    //spun for the GENERATED engine, null for the interpreted loop over fieldCodecs
+    private final GeneratedPlan generated;
+
+    CodecPlan(ClassMetadata metadata, CodecRegistry registry) {
+        this.type = metadata.getType();
+        this.instantiator = registry.instantiator(type);
+        FieldMetadata[] fields = metadata.getFields();
+        Map<String, Integer> indexMap = new HashMap<>();
+        this.fieldCodecs = new FieldCodec[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            fieldCodecs[i] = FieldCodec.forField(fields[i], registry);
+            indexMap.put(fields[i].getName(), i);
+        }
+        this.indexByName = Collections.unmodifiableMap(indexMap);
+        this.fieldIds = registry.getOptions().getFieldNaming() == FieldNaming.IDS;
+        this.indexById = fieldIds ? indexById(fieldCodecs) : null;
+        int fixedSize = ByteOutput.varIntSize(END);
+        List<FieldCodec> variableSize = new ArrayList<>();
+        for (FieldCodec fieldCodec : fieldCodecs) {
+            if (fieldCodec.fixedBinarySize() >= 0) {
+                fixedSize += fieldCodec.fixedBinarySize();
+            } else {
+                variableSize.add(fieldCodec);
+            }
+        }
+        this.fixedBinarySize = fixedSize;
+        this.variableSizeFieldCodecs = variableSize.toArray(new FieldCodec[0]);
+        this.generated = registry.getOptions().getEngine() == Engine.GENERATED ? generate(metadata, registry) : null;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    boolean isGenerated() {
+        return generated != null;
+    }
+
+    public Object newInstance() throws ReflectiveOperationException {
+        return instantiator.newInstance();
+    }
+
+    public void write(Object obj, TextOutput out) throws ReflectiveOperationException {
+        out.beginObject();
+        int start = out.length();
+        for (FieldCodec fieldCodec : fieldCodecs) {
+            int mark = out.length();
+            if (mark != start) {
+                out.fieldSeparator();
+            }
+            if (!fieldCodec.write(obj, out)) {
+                //nothing written for null field, drop the separator
+                out.setLength(mark);
+            }
+        }
+        out.endObject();
+    }
+
+    public void read(TextInput in, Object result) throws ReflectiveOperationException {
+        in.beginObject();
+        int next = 0;
+        while (in.nextField()) {
+            int keyStart = in.position();
+            int keyEnd = in.skipKey();
+            int index = fieldIndex(in, keyStart, keyEnd, next);
+            fieldCodecs[index].read(result, in);
+            next = index + 1;
+        }
+        in.endObject();
+    }
+
+    public void writeBinary(Object obj, ByteOutput out) throws ReflectiveOperationException {
+        if (generated != null) {
+            generated.writeBinary(obj, out);
+            return;
+        }
+        for (FieldCodec fieldCodec : fieldCodecs) {
+            fieldCodec.writeBinary(obj, out);
+        }
+        out.writeVarInt(END);
+    }
+
+    //adds what writeBinary would write: the fixed-size fields at once, the others through the counter
+    public void measureBinary(Object obj, CountingByteOutput out) throws ReflectiveOperationException {
+        out.add(fixedBinarySize);
+        if (generated != null) {
+            generated.measureBinary(obj, out);
+            return;
+        }
+        for (FieldCodec fieldCodec : variableSizeFieldCodecs) {
+            fieldCodec.writeBinary(obj, out);
+        }
+    }
+
+    public void readBinary(Object result, ByteInput in) throws ReflectiveOperationException {
+        int key;
+        while ((key = in.readVarInt()) != END) {
+            int index = fieldIds ? fieldIndexById(key) : fieldIndexByName(in.readUtf8(key));
+            if (generated != null) {
+                generated.readField(index, result, in);
+            } else {
+                fieldCodecs[index].readBinary(result, in);
+            }
+        }
+    }
+
+    private int fieldIndex(TextInput in, int keyStart, int keyEnd, int expected) throws NoSuchFieldException {
+        if (fieldIds) {
+            return fieldIndexById(in.keyToInt(keyStart, keyEnd));
+        }
+        //fields mostly arrive in declaration order, so the one after the previous field is tried first
+        if (expected < fieldCodecs.length && fieldCodecs[expected].nameMatches(in, keyStart, keyEnd)) {
+            return expected;
+        }
+        for (int i = 0; i < fieldCodecs.length; i++) {
+            if (fieldCodecs[i].nameMatches(in, keyStart, keyEnd)) {
+                return i;
+            }
+        }
+        throw new NoSuchFieldException(in.keyToString(keyStart, keyEnd));
+    }
+
+    private int fieldIndexByName(String name) throws NoSuchFieldException {
+        Integer index = indexByName.get(name);
+        if (index == null) {
+            throw new NoSuchFieldException(name);
+        }
+        return index;
+    }
+
+    private GeneratedPlan generate(ClassMetadata metadata, CodecRegistry registry) {
+        try {
+            return registry.generatedPlan(metadata, fieldCodecs);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            //the spun class could not be written, verified, loaded or instantiated; the interpreted loop
+            //writes the same bytes
+            return null;
+        }
+    }
+
+    private int fieldIndexById(int id) throws NoSuchFieldException {
+        int index = id > 0 && id < indexById.length ? indexById[id] : -1;
+        if (index < 0) {
+            throw new NoSuchFieldException("#" + id);
+        }
+        return index;
+    }
+
+    private int[] indexById(FieldCodec[] codecs) {
+        int maxId = 0;
+        for (FieldCodec codec : codecs) {
+            if (codec.getId() == 0) {
+                throw new IllegalArgumentException("Field " + type.getName() + "." + codec.getName()
+                        + " has no @FieldId, which FieldNaming.IDS requires");
+            }
+            if (codec.getId() < 0 || codec.getId() > MAX_FIELD_ID) {
+                throw new IllegalArgumentException("Field id of " + type.getName() + "." + codec.getName()
+                        + " must be between 1 and " + MAX_FIELD_ID);
+            }
+            maxId = Math.max(maxId, codec.getId());
+        }
+        int[] byId = new int[maxId + 1];
+        Arrays.fill(byId, -1);
+        for (int i = 0; i < codecs.length; i++) {
+            int id = codecs[i].getId();
+            if (byId[id] >= 0) {
+                throw new IllegalArgumentException("Duplicate field id " + id + " in " + type.getName()
+                        + ": " + codecs[byId[id]].getName() + " and " + codecs[i].getName());
+            }
+            byId[id] = i;
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.artemdvn.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//Codec plans compiled for one set of options, shared by a Serializer and Deserializer pair
+public class CodecRegistry {
+
+    private final SerializerOptions options;
+    //owned by the registry, so the plans and the classes spun for them go away with it
+    private final ConcurrentMap<Class<?>, CodecPlan> plans = new ConcurrentHashMap<>();
+
+    public CodecRegistry(SerializerOptions options) {
+        if (options.isReferenceTracking() && options.getFormat() != Format.BINARY) {
+            throw new IllegalArgumentException("Reference tracking requires the BINARY format");
+        }
+        if (options.isStringTable() && options.getFormat() != Format.BINARY) {
+            throw new IllegalArgumentException("String table requires the BINARY format");
+        }
+        if (options.getEngine() == Engine.GENERATED && options.getFormat() != Format.BINARY) {
+            throw new IllegalArgumentException("Generated engine requires the BINARY format");
+        }
+        this.options = options;
+    }
+
+    public SerializerOptions getOptions() {
+        return options;
+    }
+
+    public CodecPlan plan(Class<?> type) {
+        CodecPlan plan = plans.get(type);
+        if (plan == null) {
+            //built outside the map, a plan racing for the same type is dropped
+            CodecPlan created = new CodecPlan(ClassMetadata.of(type), this);
+            plan = plans.putIfAbsent(type, created);
+            if (plan == null) {
+                plan = created;
+            }
+        }
+        return plan;
+    }
+
+    Instantiator instantiator(Class<?> type) {
+        return Instantiators.resolve(type, options.getInstantiatorStrategy());
+    }
+
+    //the plan generated at build time for @CustomSerializable types, otherwise one spun now
+    GeneratedPlan generatedPlan(ClassMetadata metadata, FieldCodec[] codecs) throws ReflectiveOperationException {
+        boolean fieldIds = options.getFieldNaming() == FieldNaming.IDS;
+        GeneratedPlan plan = metadata.generatedPlan(codecs, fieldIds);
+        return plan != null ? plan : GeneratedPlan.forFields(metadata.getType(), metadata.getFields(), codecs, fieldIds);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.artemdvn.core;
+
+//Counts the bytes a message takes without writing them anywhere
+public class CountingByteOutput extends ByteOutput {
+
+    private int count;
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        count = 0;
+    }
+
+    public void add(int bytes) {
+        count += bytes;
+    }
+
+    @Override
+    public void writeObject(CodecPlan plan, Object obj) throws ReflectiveOperationException {
+        plan.measureBinary(obj, this);
+    }
+
+    @Override
+    public void writeByte(int value) {
+        count++;
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        count += length;
+    }
+
+    @Override
+    public void writeVarInt(int value) {
+        count += varIntSize(value);
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        count += varLongSize(value);
+    }
+
+    @Override
+    public void writeIntLE(int value) {
+        count += 4;
+    }
+
+    @Override
+    public void writeLongLE(long value) {
+        count += 8;
+    }
+
+    @Override
+    public void writeUtf8(CharSequence chars) {
+        count += Utf8.length(chars);
+    }
+}
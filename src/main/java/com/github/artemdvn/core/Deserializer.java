@@ -1,170 +1,296 @@
 package com.github.artemdvn.core;
 
 import com.github.artemdvn.exception.DeserializationException;
-import com.github.artemdvn.util.ClassUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-
-import static com.github.artemdvn.core.Separators.COLLECTION_SEPARATOR;
-import static com.github.artemdvn.core.Separators.FIELD_SEPARATOR;
-import static com.github.artemdvn.core.Separators.KEY_VALUE_SEPARATOR;
-import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Deserializer {
 
-    private static final String COLLECTION_SEPARATOR_STRING = Character.toString((char) COLLECTION_SEPARATOR);
-    private static final String OBJECT_SEPARATOR_STRING = Character.toString((char) OBJECT_SEPARATOR);
+    private static final int MIN_BUFFER_SIZE = 256;
+
+    private final CodecRegistry registry;
+
+    public Deserializer() {
+        this(new CodecRegistry(SerializerOptions.DEFAULT));
+    }
+
+    public Deserializer(CodecRegistry registry) {
+        this.registry = registry;
+    }
 
     public <T> T deserialize(InputStream inputStream, Class<T> clazz) {
-        T result;
         try {
-            byte[] data = new byte[inputStream.available()];
-            inputStream.read(data);
-            result = clazz.getConstructor().newInstance();
-            extract(new String(data), result, FIELD_SEPARATOR);
+            if (registry.getOptions().getFormat() == Format.BINARY) {
+                //available() is only a hint for sizing the read buffer, the end marker tells where the message ends
+                int bufferSize = Math.max(MIN_BUFFER_SIZE,
+                        Math.min(inputStream.available(), StreamByteInput.DEFAULT_BUFFER_SIZE));
+                //bytes read past the message are handed back through mark/reset, a stream without it is only read
+                //up to the end marker and is best wrapped in a BufferedInputStream
+                StreamByteInput input = new StreamByteInput(inputStream, bufferSize, !inputStream.markSupported());
+                input.limitMessage(registry.getOptions().getMaxMessageSize());
+                T result = readBinary(input, clazz);
+                input.unreadRemaining();
+                return result;
+            } else {
+                //text has no end marker, the message is the rest of the stream
+                ArrayByteOutput data = new ArrayByteOutput(Math.max(MIN_BUFFER_SIZE, inputStream.available()));
+                data.writeFrom(inputStream);
+                return readText(textInput(data.array(), 0, data.size()), clazz);
+            }
         } catch (IOException e) {
             throw new DeserializationException("Deserialization exception: error reading from input stream");
         } catch (ReflectiveOperationException e) {
             throw new DeserializationException("Deserialization exception: error while object creation");
         }
-        return result;
     }
 
-    private static void extract(String initialString, Object result, final int fieldSeparator) throws NoSuchFieldException, ClassNotFoundException, IllegalAccessException, InstantiationException {
-        for (String fieldAndValue : initialString.split(Character.toString((char) fieldSeparator))) {
-            if (fieldAndValue.contains(COLLECTION_SEPARATOR_STRING)) {
-                extractCollection(result, fieldSeparator, fieldAndValue);
-            } else if (fieldAndValue.contains(OBJECT_SEPARATOR_STRING)) {
-                extractObjects(result, fieldSeparator, fieldAndValue);
+    //reads the records written by Serializer.writeAll one at a time, the stream is consumed as the iterator advances
+    public <T> Iterator<T> readAll(InputStream inputStream, Class<T> clazz) {
+        return new FrameIterator<>(new StreamByteInput(inputStream), clazz);
+    }
+
+    //the options have to set a max message size, record lengths come from the peer
+    public <T> IncrementalDecoder<T> newDecoder(Class<T> clazz) {
+        return new IncrementalDecoder<>(this, clazz, registry.getOptions().getMaxMessageSize());
+    }
+
+    //records written by Serializer.writeAll, from the buffer position to its limit; the buffer itself is not moved.
+    //The stream splits on record boundaries, so parallel() decodes across the fork-join pool. It is ordered,
+    //unordered() lets a parallel pipeline drop the encounter order
+    public <T> Stream<T> stream(ByteBuffer buffer, Class<T> clazz) {
+        return StreamSupport.stream(new RecordSpliterator<>(buffer.slice(), clazz), false);
+    }
+
+    public <T> Stream<T> stream(byte[] data, Class<T> clazz) {
+        return stream(ByteBuffer.wrap(data), clazz);
+    }
+
+    //the file is mapped into memory rather than read
+    public <T> Stream<T> stream(Path file, Class<T> clazz) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new DeserializationException("Deserialization exception: file is too large to map");
+            }
+            return stream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), clazz);
+        } catch (IOException e) {
+            throw new DeserializationException("Deserialization exception: error reading from file");
+        }
+    }
+
+    //binary messages are read up to their end marker, so several of them can share one buffer;
+    //text has no end marker and takes everything up to the limit
+    public <T> T deserialize(ByteBuffer buffer, Class<T> clazz) {
+        try {
+            if (registry.getOptions().getFormat() == Format.BINARY) {
+                return readBinary(new BufferByteInput(buffer), clazz);
+            }
+            TextInput input;
+            if (buffer.hasArray()) {
+                input = textInput(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                buffer.position(buffer.limit());
             } else {
-                extractValues(result, fieldAndValue);
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                input = textInput(bytes, 0, bytes.length);
             }
+            return readText(input, clazz);
+        } catch (ReflectiveOperationException e) {
+            throw new DeserializationException("Deserialization exception: error while object creation");
+        }
+    }
+
+    private <T> T readBinary(ByteInput input, Class<T> clazz) throws ReflectiveOperationException {
+        CodecPlan plan = registry.plan(clazz);
+        T result = clazz.cast(plan.newInstance());
+        if (registry.getOptions().isReferenceTracking()) {
+            input.trackReferences(result);
         }
+        if (registry.getOptions().isStringTable()) {
+            input.trackStrings();
+        }
+        plan.readBinary(result, input);
+        return result;
+    }
+
+    private <T> T readText(TextInput input, Class<T> clazz) throws ReflectiveOperationException {
+        CodecPlan plan = registry.plan(clazz);
+        T result = clazz.cast(plan.newInstance());
+        plan.read(input, result);
+        return result;
+    }
+
+    private TextInput textInput(byte[] buffer, int offset, int length) {
+        return TextInput.forFormat(registry.getOptions().getFormat(), buffer, offset, length);
     }
 
-    private static void extractCollection(Object result, int fieldSeparator, String fieldAndValue) throws NoSuchFieldException, IllegalAccessException, InstantiationException, ClassNotFoundException {
-        String[] fieldAndValueArray = fieldAndValue.split(COLLECTION_SEPARATOR_STRING);
-        Field field = result.getClass().getDeclaredField(fieldAndValueArray[0]);
-        field.setAccessible(true);
+    private class FrameIterator<T> implements Iterator<T> {
 
-        Collection fieldObject;
-        if (ClassUtils.isSet(field.getType())) {
-            fieldObject = new HashSet<>();
-        } else {
-            fieldObject = new ArrayList<>();
+        private final StreamByteInput input;
+        private final Class<T> clazz;
+
+        FrameIterator(StreamByteInput input, Class<T> clazz) {
+            this.input = input;
+            this.clazz = clazz;
         }
 
-        field.set(result, fieldObject);
+        @Override
+        public boolean hasNext() {
+            return !input.isAtEnd();
+        }
 
-        ParameterizedType collectionType = (ParameterizedType) field.getGenericType();
-        Class<?> elementType = (Class<?>) collectionType.getActualTypeArguments()[0];
-        if (ClassUtils.isPrimitive(elementType)
-                || ClassUtils.isWrapper(elementType)) {
-            //extract primitive or wrapper collection elements
-            for (String element : fieldAndValueArray[1].split(OBJECT_SEPARATOR_STRING)) {
-                fieldObject.add(parseValue(element, elementType));
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int length = input.readVarInt();
+            if (length < 0) {
+                throw new DeserializationException("Deserialization exception: invalid record length "
+                        + Integer.toUnsignedString(length));
+            }
+            if (length > registry.getOptions().getMaxMessageSize()) {
+                throw new DeserializationException("Deserialization exception: record of " + length
+                        + " bytes exceeds the limit of " + registry.getOptions().getMaxMessageSize() + " bytes");
             }
-        } else {
-            //extract non-primitive collection elements
-            for (String element : fieldAndValueArray[1].split(OBJECT_SEPARATOR_STRING)) {
-                Object innerCollectionObject = Class.forName(elementType.getName()).newInstance();
-                extract(element, innerCollectionObject, fieldSeparator + 1);
-                fieldObject.add(innerCollectionObject);
+            input.limitMessage(length);
+            try {
+                if (registry.getOptions().getFormat() != Format.BINARY) {
+                    return readText(textInput(input.readBytes(length), 0, length), clazz);
+                }
+                long start = input.consumed();
+                T result = readBinary(input, clazz);
+                if (input.consumed() - start != length) {
+                    throw new DeserializationException("Deserialization exception: record does not match its frame length");
+                }
+                return result;
+            } catch (ReflectiveOperationException e) {
+                throw new DeserializationException("Deserialization exception: error while object creation");
             }
         }
     }
 
-    private static void extractObjects(Object result, int fieldSeparator, String fieldAndValue) throws NoSuchFieldException, IllegalAccessException, InstantiationException, ClassNotFoundException {
-        String[] fieldAndValueArray = fieldAndValue.split(OBJECT_SEPARATOR_STRING);
-        Field field = result.getClass().getDeclaredField(fieldAndValueArray[0]);
-        field.setAccessible(true);
-
-        if (ClassUtils.isMap(field.getType())) {
-            Map mapObject = new HashMap<>();
-            field.set(result, mapObject);
-
-            ParameterizedType stringListType = (ParameterizedType) field.getGenericType();
-            Class<?> keyClass = (Class<?>) stringListType.getActualTypeArguments()[0];
-            Class<?> valueClass = (Class<?>) stringListType.getActualTypeArguments()[1];
-            int nextFieldSeparator = fieldSeparator + 1;
-            for (String keyValue : fieldAndValueArray[1].split(Character.toString((char) nextFieldSeparator))) {
-                String[] keyAndValueArray = keyValue.split(KEY_VALUE_SEPARATOR);
-                Object keyObject = parseValue(keyAndValueArray[0], keyClass);
-                Object valueObject;
-                if (ClassUtils.isPrimitive(valueClass) || ClassUtils.isWrapper(valueClass)) {
-                    valueObject = parseValue(keyAndValueArray[1], valueClass);
-                } else {
-                    valueObject = Class.forName(keyClass.getName()).newInstance();
-                    extract(keyAndValueArray[1], valueObject, ++nextFieldSeparator);
+    //Walks the frames in order until it is first split; only then an index of frame offsets is built,
+    //which later splits divide in halves
+    private class RecordSpliterator<T> implements Spliterator<T> {
+
+        private final ByteBuffer buffer;
+        private final Class<T> clazz;
+        //not indexed: offsets of the next frame and of the end
+        private int offset;
+        private int endOffset;
+        //indexed: frame start offsets followed by the end offset, and the range of frames left
+        private int[] frames;
+        private int index;
+        private int endIndex;
+
+        RecordSpliterator(ByteBuffer buffer, Class<T> clazz) {
+            this.buffer = buffer;
+            this.clazz = clazz;
+            this.endOffset = buffer.limit();
+        }
+
+        private RecordSpliterator(ByteBuffer buffer, Class<T> clazz, int[] frames, int index, int endIndex) {
+            this.buffer = buffer;
+            this.clazz = clazz;
+            this.frames = frames;
+            this.index = index;
+            this.endIndex = endIndex;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (frames == null) {
+                if (offset >= endOffset) {
+                    return false;
                 }
-                mapObject.put(keyObject, valueObject);
+                offset = readFrame(offset, action);
+                return true;
             }
-        } else {
-            Object fieldObject = Class.forName(field.getType().getName()).newInstance();
-            field.set(result, fieldObject);
-            extract(fieldAndValueArray[1], fieldObject, fieldSeparator + 1);
+            if (index >= endIndex) {
+                return false;
+            }
+            readFrame(frames[index++], action);
+            return true;
         }
-    }
 
-    private static void extractValues(Object result, String fieldAndValue) throws NoSuchFieldException, ClassNotFoundException, IllegalAccessException {
-        String[] keyAndValueArray = fieldAndValue.split(KEY_VALUE_SEPARATOR);
-        Field field = result.getClass().getDeclaredField(keyAndValueArray[0]);
-        field.setAccessible(true);
+        @Override
+        public Spliterator<T> trySplit() {
+            if (frames == null) {
+                frames = indexFrames(offset, endOffset);
+                index = 0;
+                endIndex = frames.length - 1;
+            }
+            int middle = (index + endIndex) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new RecordSpliterator<>(buffer, clazz, frames, index, middle);
+            index = middle;
+            return prefix;
+        }
 
-        Class fieldType = parsePrimitiveType(field.getType().getName());
-        if (ClassUtils.isEnum(fieldType)) {
-            field.set(result, Enum.valueOf((Class<? extends Enum>) Class.forName(fieldType.getName()), keyAndValueArray[1]));
-        } else {
-            field.set(result, parseValue(keyAndValueArray[1], fieldType));
+        @Override
+        public long estimateSize() {
+            //not indexed, the byte count is an upper bound of the record count
+            return frames == null ? endOffset - offset : endIndex - index;
         }
-    }
 
-    private static Object parseValue(String value, Class type) {
-        if ("null".equals(value)) {
-            return null;
-        }
-        switch (type.getName()) {
-            case "java.lang.Boolean":
-                return Boolean.parseBoolean(value);
-            case "java.lang.Double":
-                return Double.parseDouble(value);
-            case "java.lang.Float":
-                return Float.parseFloat(value);
-            case "java.lang.Integer":
-                return Integer.parseInt(value);
-            case "java.lang.Long":
-                return Long.parseLong(value);
-            case "java.lang.Short":
-                return Short.parseShort(value);
-            default:
-                return value;
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | NONNULL | IMMUTABLE;
+            return frames == null ? characteristics : characteristics | SIZED | SUBSIZED;
         }
-    }
 
-    private static Class parsePrimitiveType(String type) throws ClassNotFoundException {
-        switch (type) {
-            case "boolean":
-                return Boolean.class;
-            case "double":
-                return Double.class;
-            case "float":
-                return Float.class;
-            case "int":
-                return Integer.class;
-            case "long":
-                return Long.class;
-            case "short":
-                return Short.class;
-            default:
-                return Class.forName(type);
+        //returns the offset of the next frame
+        private int readFrame(int frameStart, Consumer<? super T> action) {
+            ByteBuffer record = buffer.duplicate();
+            record.position(frameStart);
+            int frameEnd = frameEnd(record);
+            record.limit(frameEnd);
+            T result = deserialize(record, clazz);
+            if (record.position() != frameEnd) {
+                throw new DeserializationException("Deserialization exception: record does not match its frame length");
+            }
+            action.accept(result);
+            return frameEnd;
+        }
+
+        private int[] indexFrames(int from, int to) {
+            ByteBuffer frame = buffer.duplicate();
+            frame.limit(to).position(from);
+            int[] starts = new int[64];
+            int count = 0;
+            while (frame.hasRemaining()) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = frame.position();
+                frame.position(frameEnd(frame));
+            }
+            starts = Arrays.copyOf(starts, count + 1);
+            starts[count] = to;
+            return starts;
+        }
+
+        //reads the length prefix at the buffer position, leaving the position at the start of the record
+        private int frameEnd(ByteBuffer frame) {
+            int length = new BufferByteInput(frame).readVarInt();
+            if (length < 0 || length > frame.remaining() || length > registry.getOptions().getMaxMessageSize()) {
+                throw new DeserializationException("Deserialization exception: invalid record length " + length);
+            }
+            return frame.position() + length;
         }
     }
 }
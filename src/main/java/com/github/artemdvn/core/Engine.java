@@ -0,0 +1,10 @@
+package com.github.artemdvn.core;
+
+public enum Engine {
+    //fields are read and written through method handles bound to the fields
+    REFLECTIVE,
+    //binary objects are written, measured and read by straight-line code: the plan CustomSerializableProcessor
+    //generated for @CustomSerializable types, otherwise a class spun per type that reaches public fields, getters
+    //and setters and ByteOutput directly; only for the BINARY format
+    GENERATED
+}
@@ -0,0 +1,50 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class EnumConstants {
+
+    private static final ClassValue<EnumConstants> CACHE = new ClassValue<EnumConstants>() {
+        @Override
+        protected EnumConstants computeValue(Class<?> type) {
+            return new EnumConstants(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final Enum<?>[] constants;
+    private final Map<String, Enum<?>> constantsByName;
+
+    private EnumConstants(Class<?> type) {
+        this.type = type;
+        this.constants = (Enum<?>[]) type.getEnumConstants();
+        this.constantsByName = new HashMap<>();
+        for (Enum<?> constant : constants) {
+            constantsByName.put(constant.name(), constant);
+        }
+    }
+
+    public static EnumConstants of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    public Enum<?> byOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= constants.length) {
+            throw new DeserializationException("Deserialization exception: no constant of "
+                    + type.getName() + " with ordinal " + ordinal);
+        }
+        return constants[ordinal];
+    }
+
+    public Enum<?> byName(String name) {
+        Enum<?> constant = constantsByName.get(name);
+        if (constant == null) {
+            throw new DeserializationException("Deserialization exception: no constant "
+                    + type.getName() + "." + name);
+        }
+        return constant;
+    }
+}
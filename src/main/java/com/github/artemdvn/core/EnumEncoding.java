@@ -0,0 +1,8 @@
+package com.github.artemdvn.core;
+
+public enum EnumEncoding {
+    //constant name, survives reordering of the constants
+    NAME,
+    //constant ordinal, compact but tied to declaration order
+    ORDINAL
+}
@@ -0,0 +1,218 @@
+package com.github.artemdvn.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+//Reference fields override get/set, primitive fields extend the accessor of their kind and only
+//implement the typed pair, the boxing get/set are derived from it
+public abstract class FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+
+    //a class per field whose handles are static finals, constants the JIT inlines through;
+    //the accessors of one type share the loader
+    static FieldAccessor forField(Field field, SpunClasses.Loader loader) {
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            getter = LOOKUP.unreflectGetter(field);
+            setter = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Field " + field.getName() + " is not accessible", e);
+        }
+        Class<?> type = field.getType();
+        Class<?> erased = type.isPrimitive() ? type : Object.class;
+        String kind = type.isPrimitive() ? kindName(type) : "";
+        String superName = type.isPrimitive()
+                ? "com/github/artemdvn/core/FieldAccessor$" + kind + "Accessor"
+                : "com/github/artemdvn/core/FieldAccessor";
+        String descriptor = type.isPrimitive() ? MethodType.methodType(type).toMethodDescriptorString().substring(2)
+                : "Ljava/lang/Object;";
+        String getterType = "(Ljava/lang/Object;)" + descriptor;
+        String setterType = "(Ljava/lang/Object;" + descriptor + ")V";
+
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name(field.getName()), superName);
+        builder.constant("GETTER", METHOD_HANDLE);
+        builder.constant("SETTER", METHOD_HANDLE);
+        builder.constructor();
+
+        ClassBuilder.Code get = builder.method(ClassBuilder.ACC_PUBLIC, "get" + kind, getterType, 2);
+        get.field(ClassBuilder.GETSTATIC, builder.getName(), "GETTER", "L" + METHOD_HANDLE + ";");
+        get.local(ClassBuilder.ALOAD, 1);
+        get.member(ClassBuilder.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", getterType);
+        get.op(ClassBuilder.returnOpcode(descriptor.charAt(0)));
+
+        char value = descriptor.charAt(0);
+        ClassBuilder.Code set = builder.method(ClassBuilder.ACC_PUBLIC, "set" + kind, setterType,
+                2 + ClassBuilder.slots(value));
+        set.field(ClassBuilder.GETSTATIC, builder.getName(), "SETTER", "L" + METHOD_HANDLE + ";");
+        set.local(ClassBuilder.ALOAD, 1);
+        set.local(ClassBuilder.loadOpcode(value), 2);
+        set.member(ClassBuilder.INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", setterType);
+        set.op(ClassBuilder.RETURN);
+
+        Object[] handles = {
+                getter.asType(MethodType.methodType(erased, Object.class)),
+                setter.asType(MethodType.methodType(void.class, Object.class, erased))
+        };
+        try {
+            return (FieldAccessor) loader.define(builder, handles).newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Field " + field.getName() + " accessor could not be defined", e);
+        }
+    }
+
+    //static initializer of the spun accessors, see SpunClasses
+    protected static Object constant(Class<?> owner, int index) {
+        return SpunClasses.constant(owner, index);
+    }
+
+    //"Int" for int, as in IntAccessor and getInt
+    static String kindName(Class<?> type) {
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    public abstract Object get(Object obj);
+
+    public abstract void set(Object obj, Object value);
+
+    public abstract static class BooleanAccessor extends FieldAccessor {
+
+        public abstract boolean getBoolean(Object obj);
+
+        public abstract void setBoolean(Object obj, boolean value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getBoolean(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setBoolean(obj, (Boolean) value);
+        }
+    }
+
+    public abstract static class ByteAccessor extends FieldAccessor {
+
+        public abstract byte getByte(Object obj);
+
+        public abstract void setByte(Object obj, byte value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getByte(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setByte(obj, (Byte) value);
+        }
+    }
+
+    public abstract static class CharAccessor extends FieldAccessor {
+
+        public abstract char getChar(Object obj);
+
+        public abstract void setChar(Object obj, char value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getChar(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setChar(obj, (Character) value);
+        }
+    }
+
+    public abstract static class ShortAccessor extends FieldAccessor {
+
+        public abstract short getShort(Object obj);
+
+        public abstract void setShort(Object obj, short value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getShort(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setShort(obj, (Short) value);
+        }
+    }
+
+    public abstract static class IntAccessor extends FieldAccessor {
+
+        public abstract int getInt(Object obj);
+
+        public abstract void setInt(Object obj, int value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getInt(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setInt(obj, (Integer) value);
+        }
+    }
+
+    public abstract static class LongAccessor extends FieldAccessor {
+
+        public abstract long getLong(Object obj);
+
+        public abstract void setLong(Object obj, long value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getLong(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setLong(obj, (Long) value);
+        }
+    }
+
+    public abstract static class FloatAccessor extends FieldAccessor {
+
+        public abstract float getFloat(Object obj);
+
+        public abstract void setFloat(Object obj, float value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getFloat(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setFloat(obj, (Float) value);
+        }
+    }
+
+    public abstract static class DoubleAccessor extends FieldAccessor {
+
+        public abstract double getDouble(Object obj);
+
+        public abstract void setDouble(Object obj, double value);
+
+        @Override
+        public final Object get(Object obj) {
+            return getDouble(obj);
+        }
+
+        @Override
+        public final void set(Object obj, Object value) {
+            setDouble(obj, (Double) value);
+        }
+    }
+}
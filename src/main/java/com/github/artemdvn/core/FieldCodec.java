@@ -0,0 +1,628 @@
+package com.github.artemdvn.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+public abstract class FieldCodec {
+
+    //collections read from binary are presized up to this many elements and grow past it as they are filled,
+    //so a count that the bytes do not back cannot claim a large allocation up front
+    private static final int MAX_PRESIZE = 1024;
+
+    protected final FieldAccessor accessor;
+    private final String name;
+    private final int id;
+    //name or id, as configured by FieldNaming
+    protected final String key;
+    private final byte[] nameBytes;
+    private final boolean fieldIds;
+    //bytes taken by the binary key, the same for every message
+    protected final int keySize;
+
+    protected FieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+        this.accessor = metadata.getAccessor();
+        this.name = metadata.getName();
+        this.id = metadata.getId();
+        this.fieldIds = registry.getOptions().getFieldNaming() == FieldNaming.IDS;
+        this.key = fieldIds ? Integer.toString(id) : name;
+        this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        this.keySize = fieldIds ? ByteOutput.varIntSize(id) : ByteOutput.varIntSize(nameBytes.length) + nameBytes.length;
+    }
+
+    public static FieldCodec forField(FieldMetadata metadata, CodecRegistry registry) {
+        switch (metadata.getCategory()) {
+            case PRIMITIVE:
+                return forPrimitive(metadata, registry);
+            case COLLECTION:
+                return new CollectionFieldCodec(metadata, registry);
+            case MAP:
+                return new MapFieldCodec(metadata, registry);
+            case OBJECT:
+                return new ObjectFieldCodec(metadata, registry);
+            default:
+                return new ValueFieldCodec(metadata, registry);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    //returns false when the field holds null and nothing was written
+    public abstract boolean write(Object obj, TextOutput out) throws ReflectiveOperationException;
+
+    //reads the value at the cursor, right after the key
+    public abstract void read(Object result, TextInput in) throws ReflectiveOperationException;
+
+    //binary codecs skip null fields entirely
+    public abstract void writeBinary(Object obj, ByteOutput out) throws ReflectiveOperationException;
+
+    public abstract void readBinary(Object result, ByteInput in) throws ReflectiveOperationException;
+
+    public boolean nameMatches(TextInput in, int keyStart, int keyEnd) {
+        return in.keyEquals(keyStart, keyEnd, nameBytes);
+    }
+
+    //binary size of key and value when it never varies, -1 otherwise
+    public int fixedBinarySize() {
+        return -1;
+    }
+
+    public void writeKey(ByteOutput out) {
+        if (fieldIds) {
+            out.writeVarInt(id);
+        } else {
+            out.writeVarInt(nameBytes.length);
+            out.writeBytes(nameBytes);
+        }
+    }
+
+    private static FieldCodec forPrimitive(FieldMetadata metadata, CodecRegistry registry) {
+        Class<?> type = metadata.getType();
+        if (type == int.class) {
+            return new IntFieldCodec(metadata, registry);
+        } else if (type == long.class) {
+            return new LongFieldCodec(metadata, registry);
+        } else if (type == double.class) {
+            return new DoubleFieldCodec(metadata, registry);
+        } else if (type == boolean.class) {
+            return new BooleanFieldCodec(metadata, registry);
+        } else if (type == float.class) {
+            return new FloatFieldCodec(metadata, registry);
+        } else if (type == short.class) {
+            return new ShortFieldCodec(metadata, registry);
+        } else if (type == byte.class) {
+            return new ByteFieldCodec(metadata, registry);
+        }
+        return new CharFieldCodec(metadata, registry);
+    }
+
+    static class BooleanFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.BooleanAccessor typedAccessor;
+
+        BooleanFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.BooleanAccessor) accessor;
+        }
+
+        @Override
+        public int fixedBinarySize() {
+            return keySize + 1;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getBoolean(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setBoolean(result, Boolean.parseBoolean(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeBoolean(typedAccessor.getBoolean(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setBoolean(result, in.readBoolean());
+        }
+    }
+
+    static class ByteFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.ByteAccessor typedAccessor;
+
+        ByteFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.ByteAccessor) accessor;
+        }
+
+        @Override
+        public int fixedBinarySize() {
+            return keySize + 1;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getByte(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setByte(result, Byte.parseByte(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeByte(typedAccessor.getByte(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setByte(result, in.readByte());
+        }
+    }
+
+    static class CharFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.CharAccessor typedAccessor;
+
+        CharFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.CharAccessor) accessor;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key);
+            out.append(typedAccessor.getChar(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setChar(result, ScalarType.parseChar(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeVarInt(typedAccessor.getChar(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setChar(result, (char) in.readVarInt());
+        }
+    }
+
+    static class ShortFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.ShortAccessor typedAccessor;
+
+        ShortFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.ShortAccessor) accessor;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getShort(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setShort(result, Short.parseShort(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeSignedVarInt(typedAccessor.getShort(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setShort(result, (short) in.readSignedVarInt());
+        }
+    }
+
+    static class IntFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.IntAccessor typedAccessor;
+
+        IntFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.IntAccessor) accessor;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getInt(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setInt(result, in.readInt());
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeSignedVarInt(typedAccessor.getInt(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setInt(result, in.readSignedVarInt());
+        }
+    }
+
+    static class LongFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.LongAccessor typedAccessor;
+
+        LongFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.LongAccessor) accessor;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getLong(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setLong(result, in.readLong());
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeSignedVarLong(typedAccessor.getLong(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setLong(result, in.readSignedVarLong());
+        }
+    }
+
+    static class FloatFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.FloatAccessor typedAccessor;
+
+        FloatFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.FloatAccessor) accessor;
+        }
+
+        @Override
+        public int fixedBinarySize() {
+            return keySize + 4;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getFloat(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setFloat(result, Float.parseFloat(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeFloat(typedAccessor.getFloat(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setFloat(result, in.readFloat());
+        }
+    }
+
+    static class DoubleFieldCodec extends FieldCodec {
+
+        private final FieldAccessor.DoubleAccessor typedAccessor;
+
+        DoubleFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.typedAccessor = (FieldAccessor.DoubleAccessor) accessor;
+        }
+
+        @Override
+        public int fixedBinarySize() {
+            return keySize + 8;
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) {
+            out.key(key).append(typedAccessor.getDouble(obj));
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) {
+            typedAccessor.setDouble(result, Double.parseDouble(in.readValue()));
+        }
+
+        @Override
+        public void writeBinary(Object obj, ByteOutput out) {
+            writeKey(out);
+            out.writeDouble(typedAccessor.getDouble(obj));
+        }
+
+        @Override
+        public void readBinary(Object result, ByteInput in) {
+            typedAccessor.setDouble(result, in.readDouble());
+        }
+    }
+
+    //fields holding references, written through their value so that the generated plans call the accessor directly
+    public abstract static class ReferenceFieldCodec extends FieldCodec {
+
+        protected ReferenceFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+        }
+
+        @Override
+        public final void writeBinary(Object obj, ByteOutput out) throws ReflectiveOperationException {
+            writeBinaryValue(accessor.get(obj), out);
+        }
+
+        @Override
+        public final void readBinary(Object result, ByteInput in) throws ReflectiveOperationException {
+            accessor.set(result, readBinaryValue(in));
+        }
+
+        //key and value, nothing for null
+        public abstract void writeBinaryValue(Object value, ByteOutput out) throws ReflectiveOperationException;
+
+        public abstract Object readBinaryValue(ByteInput in) throws ReflectiveOperationException;
+    }
+
+    //boxed wrappers, strings and enums
+    static class ValueFieldCodec extends ReferenceFieldCodec {
+
+        private final ValueCodec valueCodec;
+
+        ValueFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.valueCodec = ValueCodec.forType(metadata.getType(), registry);
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) throws ReflectiveOperationException {
+            Object value = accessor.get(obj);
+            if (value == null) {
+                return false;
+            }
+            out.key(key);
+            valueCodec.write(value, out);
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) throws ReflectiveOperationException {
+            accessor.set(result, valueCodec.read(in));
+        }
+
+        @Override
+        public void writeBinaryValue(Object value, ByteOutput out) throws ReflectiveOperationException {
+            if (value != null) {
+                writeKey(out);
+                valueCodec.writeBinary(value, out);
+            }
+        }
+
+        @Override
+        public Object readBinaryValue(ByteInput in) throws ReflectiveOperationException {
+            return valueCodec.readBinary(in);
+        }
+    }
+
+    static class ObjectFieldCodec extends ReferenceFieldCodec {
+
+        private final ValueCodec valueCodec;
+
+        ObjectFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.valueCodec = ValueCodec.forType(metadata.getType(), registry);
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) throws ReflectiveOperationException {
+            Object value = accessor.get(obj);
+            if (value == null) {
+                return false;
+            }
+            out.objectKey(key);
+            valueCodec.write(value, out);
+            return true;
+        }
+
+        @Override
+        public void read(Object result, TextInput in) throws ReflectiveOperationException {
+            accessor.set(result, valueCodec.read(in));
+        }
+
+        @Override
+        public void writeBinaryValue(Object value, ByteOutput out) throws ReflectiveOperationException {
+            if (value != null) {
+                writeKey(out);
+                valueCodec.writeBinary(value, out);
+            }
+        }
+
+        @Override
+        public Object readBinaryValue(ByteInput in) throws ReflectiveOperationException {
+            return valueCodec.readBinary(in);
+        }
+    }
+
+    static class CollectionFieldCodec extends ReferenceFieldCodec {
+
+        private final boolean set;
+        private final ValueCodec elementCodec;
+
+        CollectionFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.set = metadata.isSet();
+            this.elementCodec = ValueCodec.forType(metadata.getElementType(), registry);
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) throws ReflectiveOperationException {
+            Collection<?> collection = (Collection<?>) accessor.get(obj);
+            if (collection == null) {
+                return false;
+            }
+            out.collectionKey(key);
+            out.beginCollection();
+            boolean first = true;
+            for (Object element : collection) {
+                out.beginElement(first);
+                elementCodec.write(element, out);
+                first = false;
+            }
+            out.endCollection();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void read(Object result, TextInput in) throws ReflectiveOperationException {
+            Collection collection = set ? new HashSet<>() : new ArrayList<>();
+            accessor.set(result, collection);
+            if (in.beginElements()) {
+                do {
+                    collection.add(elementCodec.read(in));
+                } while (in.nextElement());
+            }
+            in.endElements();
+        }
+
+        @Override
+        public void writeBinaryValue(Object value, ByteOutput out) throws ReflectiveOperationException {
+            Collection<?> collection = (Collection<?>) value;
+            if (collection == null) {
+                return;
+            }
+            writeKey(out);
+            out.writeVarInt(collection.size());
+            for (Object element : collection) {
+                elementCodec.writeBinary(element, out);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object readBinaryValue(ByteInput in) throws ReflectiveOperationException {
+            int size = in.readLength();
+            int capacity = Math.min(size, MAX_PRESIZE);
+            Collection collection = set ? new HashSet<>(capacity * 4 / 3 + 1) : new ArrayList<>(capacity);
+            for (int i = 0; i < size; i++) {
+                collection.add(elementCodec.readBinary(in));
+            }
+            return collection;
+        }
+    }
+
+    static class MapFieldCodec extends ReferenceFieldCodec {
+
+        private final ValueCodec keyCodec;
+        private final ValueCodec valueCodec;
+
+        MapFieldCodec(FieldMetadata metadata, CodecRegistry registry) {
+            super(metadata, registry);
+            this.keyCodec = ValueCodec.forType(metadata.getKeyType(), registry);
+            this.valueCodec = ValueCodec.forType(metadata.getValueType(), registry);
+        }
+
+        @Override
+        public boolean write(Object obj, TextOutput out) throws ReflectiveOperationException {
+            Map<?, ?> map = (Map<?, ?>) accessor.get(obj);
+            if (map == null) {
+                return false;
+            }
+            out.mapKey(key);
+            out.beginMap();
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    out.entrySeparator();
+                }
+                keyCodec.write(entry.getKey(), out);
+                out.keyValueSeparator();
+                valueCodec.write(entry.getValue(), out);
+                first = false;
+            }
+            out.endMap();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void read(Object result, TextInput in) throws ReflectiveOperationException {
+            Map map = new HashMap<>();
+            accessor.set(result, map);
+            in.beginMap();
+            while (in.nextEntry()) {
+                in.beginMapKey();
+                Object entryKey = keyCodec.read(in);
+                in.endMapKey();
+                map.put(entryKey, valueCodec.read(in));
+            }
+            in.endMap();
+        }
+
+        @Override
+        public void writeBinaryValue(Object value, ByteOutput out) throws ReflectiveOperationException {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map == null) {
+                return;
+            }
+            writeKey(out);
+            out.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keyCodec.writeBinary(entry.getKey(), out);
+                valueCodec.writeBinary(entry.getValue(), out);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object readBinaryValue(ByteInput in) throws ReflectiveOperationException {
+            int size = in.readLength();
+            Map map = new HashMap<>(Math.min(size, MAX_PRESIZE) * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                map.put(keyCodec.readBinary(in), valueCodec.readBinary(in));
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.annotation.FieldId;
+import com.github.artemdvn.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+public class FieldMetadata {
+
+    public enum Category {
+        PRIMITIVE,
+        WRAPPER,
+        STRING,
+        ENUM,
+        COLLECTION,
+        MAP,
+        OBJECT
+    }
+
+    private final Class<?> declaringClass;
+    private final FieldAccessor accessor;
+    private final boolean reflective;
+    private final String name;
+    private final int id;
+    private final Class<?> type;
+    private final Class<?> boxedType;
+    private final Category category;
+    private final boolean set;
+    private final Class<?>[] typeArguments;
+
+    //used by codecs generated at build time, which bring their own accessors
+    public FieldMetadata(Class<?> declaringClass, String name, int id, Class<?> type, Class<?>[] typeArguments,
+                         FieldAccessor accessor) {
+        this(declaringClass, name, id, type, typeArguments, accessor, false);
+    }
+
+    private FieldMetadata(Class<?> declaringClass, String name, int id, Class<?> type, Class<?>[] typeArguments,
+                          FieldAccessor accessor, boolean reflective) {
+        this.declaringClass = declaringClass;
+        this.accessor = accessor;
+        this.reflective = reflective;
+        this.name = name;
+        this.id = id;
+        this.type = type;
+        this.boxedType = ClassUtils.box(type);
+        this.category = resolveCategory(type);
+        this.set = ClassUtils.isSet(type);
+        this.typeArguments = Arrays.copyOf(typeArguments, Math.max(typeArguments.length, 2));
+        for (int i = typeArguments.length; i < this.typeArguments.length; i++) {
+            this.typeArguments[i] = Object.class;
+        }
+    }
+
+    //id 0 without @FieldId, CodecPlan rejects such fields with FieldNaming.IDS
+    static FieldMetadata forField(Field field, SpunClasses.Loader loader) {
+        field.setAccessible(true);
+        FieldId fieldId = field.getAnnotation(FieldId.class);
+        int id = fieldId != null ? fieldId.value() : 0;
+        return new FieldMetadata(field.getDeclaringClass(), field.getName(), id, field.getType(),
+                resolveTypeArguments(field.getGenericType()), FieldAccessor.forField(field, loader), true);
+    }
+
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    public boolean isReflective() {
+        return reflective;
+    }
+
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Class<?> getBoxedType() {
+        return boxedType;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public boolean isSet() {
+        return set;
+    }
+
+    public Class<?> getElementType() {
+        return typeArguments[0];
+    }
+
+    public Class<?> getKeyType() {
+        return typeArguments[0];
+    }
+
+    public Class<?> getValueType() {
+        return typeArguments[1];
+    }
+
+    private static Category resolveCategory(Class<?> type) {
+        if (ClassUtils.isPrimitive(type)) {
+            return Category.PRIMITIVE;
+        } else if (ClassUtils.isWrapper(type)) {
+            return Category.WRAPPER;
+        } else if (ClassUtils.isString(type)) {
+            return Category.STRING;
+        } else if (ClassUtils.isEnum(type)) {
+            return Category.ENUM;
+        } else if (ClassUtils.isMap(type)) {
+            return Category.MAP;
+        } else if (ClassUtils.isCollection(type)) {
+            return Category.COLLECTION;
+        }
+        return Category.OBJECT;
+    }
+
+    private static Class<?>[] resolveTypeArguments(Type genericType) {
+        if (!(genericType instanceof ParameterizedType)) {
+            return new Class<?>[0];
+        }
+        Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+        Class<?>[] resolved = new Class<?>[arguments.length];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = ClassUtils.rawType(arguments[i]);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,9 @@
+package com.github.artemdvn.core;
+
+public enum FieldNaming {
+    //fields are keyed by their Java name
+    NAMES,
+    //fields are keyed by their @FieldId, which every field must have: the order fields are declared and
+    //reflected in is not stable enough to number them by
+    IDS
+}
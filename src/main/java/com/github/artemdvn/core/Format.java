@@ -0,0 +1,12 @@
+package com.github.artemdvn.core;
+
+public enum Format {
+    //field names, '=' and toString() values delimited by the control characters in Separators,
+    //one field separator per nesting level
+    TEXT,
+    //text with begin/end markers around nested values and escaped control characters in values,
+    //the delimiters do not depend on the depth
+    TEXT_V2,
+    //self-delimiting binary: length-prefixed names and strings, varint/zigzag integers, IEEE floats
+    BINARY
+}
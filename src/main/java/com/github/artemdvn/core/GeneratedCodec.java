@@ -0,0 +1,15 @@
+package com.github.artemdvn.core;
+
+//Implemented by the codecs that CustomSerializableProcessor generates for @CustomSerializable types,
+//registered as services of this interface
+public interface GeneratedCodec {
+
+    String SUFFIX = "_Codec";
+
+    Class<?> type();
+
+    FieldMetadata[] fields();
+
+    //binary plan over the codecs built for fields(), in the same order
+    GeneratedPlan plan(FieldCodec[] codecs, boolean fieldIds);
+}
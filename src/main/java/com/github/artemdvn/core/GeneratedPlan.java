@@ -0,0 +1,337 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.util.ClassUtils;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+//Binary codec of one class, spun at runtime: the write puts every key and primitive value to ByteOutput in
+//declaration order, the read dispatches on the field index with a tableswitch. Fields are reached like the
+//processor-generated codecs do, directly when public and otherwise through public JavaBeans getters and setters;
+//only the fields with neither, or of a type the spun class cannot name, go through their FieldAccessor.
+//Reference values are left to their codecs, which are static finals of the spun class like the accessors
+public abstract class GeneratedPlan {
+
+    private static final String FIELD_ACCESSOR = "com/github/artemdvn/core/FieldAccessor";
+    private static final String REFERENCE_CODEC = "com/github/artemdvn/core/FieldCodec$ReferenceFieldCodec";
+    private static final String BYTE_OUTPUT = "com/github/artemdvn/core/ByteOutput";
+    private static final String COUNTING_OUTPUT = "com/github/artemdvn/core/CountingByteOutput";
+    private static final String BYTE_INPUT = "com/github/artemdvn/core/ByteInput";
+
+    //fields and their codecs in the same order, indexes passed to readField refer to it
+    static GeneratedPlan forFields(Class<?> type, FieldMetadata[] fields, FieldCodec[] codecs, boolean fieldIds)
+            throws ReflectiveOperationException {
+        SpunClasses.Loader loader = SpunClasses.loader(type);
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name(type.getSimpleName()),
+                "com/github/artemdvn/core/GeneratedPlan");
+        List<Object> constants = new ArrayList<>();
+        SpunField[] spunFields = new SpunField[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            spunFields[i] = new SpunField(builder, i, fields[i], codecs[i], fieldIds, loader, constants);
+        }
+        builder.constructor();
+        writeMethod(builder, "writeBinary", BYTE_OUTPUT, spunFields, false);
+        writeMethod(builder, "measureBinary", COUNTING_OUTPUT, spunFields, true);
+        readMethod(builder, spunFields);
+        return (GeneratedPlan) loader.define(builder, constants.toArray()).newInstance();
+    }
+
+    //static initializer of the spun plans, see SpunClasses
+    protected static Object constant(Class<?> owner, int index) {
+        return SpunClasses.constant(owner, index);
+    }
+
+    //fields, then the end marker
+    public abstract void writeBinary(Object obj, ByteOutput out) throws ReflectiveOperationException;
+
+    //writes the fields of variable size only, CodecPlan adds the others and the end marker at once
+    public abstract void measureBinary(Object obj, CountingByteOutput out) throws ReflectiveOperationException;
+
+    //value of the field at the index, right after its key
+    public abstract void readField(int index, Object result, ByteInput in) throws ReflectiveOperationException;
+
+    //locals: this, obj, out
+    private static void writeMethod(ClassBuilder builder, String name, String output, SpunField[] fields,
+                                    boolean variableSizeOnly) {
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC, name,
+                "(Ljava/lang/Object;L" + output + ";)V", 3);
+        for (SpunField field : fields) {
+            if (!variableSizeOnly || field.codec.fixedBinarySize() < 0) {
+                field.write(code);
+            }
+        }
+        if (!variableSizeOnly) {
+            code.local(ClassBuilder.ALOAD, 2);
+            code.push(0);
+            code.member(ClassBuilder.INVOKEVIRTUAL, BYTE_OUTPUT, "writeVarInt", "(I)V");
+        }
+        code.op(ClassBuilder.RETURN);
+    }
+
+    //locals: this, index, result, in
+    private static void readMethod(ClassBuilder builder, SpunField[] fields) {
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC, "readField",
+                "(ILjava/lang/Object;L" + BYTE_INPUT + ";)V", 4);
+        if (fields.length == 0) {
+            code.op(ClassBuilder.RETURN);
+            return;
+        }
+        code.local(ClassBuilder.ILOAD, 1);
+        int tableswitch = code.tableswitch(fields.length);
+        for (int i = 0; i < fields.length; i++) {
+            code.target(tableswitch, i);
+            fields[i].read(code);
+            code.op(ClassBuilder.RETURN);
+        }
+        //indexes come from CodecPlan, which only hands out those of its fields
+        code.target(tableswitch, -1);
+        code.op(ClassBuilder.RETURN);
+    }
+
+    //The code emitted for one field. The spun class lives in its own loader, so it may only touch public members
+    //of public types that this loader resolves to the very same classes
+    private static final class SpunField {
+
+        private final ClassBuilder builder;
+        private final FieldCodec codec;
+        private final Class<?> type;
+        private final boolean fieldIds;
+        private final String accessorName;
+        private final String codecName;
+        private final String keyName;
+        //a Field, a getter or setter Method, or null for the FieldAccessor
+        private final Member reader;
+        private final Member writer;
+
+        SpunField(ClassBuilder builder, int index, FieldMetadata metadata, FieldCodec codec, boolean fieldIds,
+                  SpunClasses.Loader loader, List<Object> constants) {
+            this.builder = builder;
+            this.codec = codec;
+            this.type = metadata.getType();
+            this.fieldIds = fieldIds;
+            Field field = declaredField(metadata);
+            boolean typeVisible = visible(type, loader);
+            this.reader = typeVisible ? reader(metadata, field, loader) : null;
+            this.writer = typeVisible ? writer(metadata, field, loader) : null;
+            this.accessorName = reader == null || writer == null ? "A" + index : null;
+            if (accessorName != null) {
+                builder.constant(accessorName, accessorType(type));
+                constants.add(codec.accessor);
+            }
+            this.codecName = type.isPrimitive() ? null : "C" + index;
+            if (codecName != null) {
+                builder.constant(codecName, REFERENCE_CODEC);
+                constants.add(codec);
+            }
+            //a name key is written as the bytes writeKey would produce
+            this.keyName = fieldIds ? null : "K" + index;
+            if (keyName != null) {
+                ArrayByteOutput key = new ArrayByteOutput(16);
+                codec.writeKey(key);
+                builder.constant(keyName, "[B");
+                constants.add(key.toByteArray());
+            }
+        }
+
+        //locals: this, obj, out
+        void write(ClassBuilder.Code code) {
+            if (type.isPrimitive()) {
+                writeKey(code);
+                code.local(ClassBuilder.ALOAD, 2);
+                loadValue(code);
+                code.member(ClassBuilder.INVOKEVIRTUAL, BYTE_OUTPUT, writerName(type),
+                        "(" + writerParameter(type) + ")V");
+            } else {
+                //the key is written by the codec, and not at all for null
+                code.field(ClassBuilder.GETSTATIC, builder.getName(), codecName, "L" + REFERENCE_CODEC + ";");
+                loadValue(code);
+                code.local(ClassBuilder.ALOAD, 2);
+                code.member(ClassBuilder.INVOKEVIRTUAL, REFERENCE_CODEC, "writeBinaryValue",
+                        "(Ljava/lang/Object;L" + BYTE_OUTPUT + ";)V");
+            }
+        }
+
+        //locals: this, index, result, in
+        void read(ClassBuilder.Code code) {
+            if (writer == null) {
+                code.field(ClassBuilder.GETSTATIC, builder.getName(), accessorName, "L" + accessorType(type) + ";");
+                code.local(ClassBuilder.ALOAD, 2);
+            } else {
+                receiver(code, 2, writer);
+            }
+            if (type.isPrimitive()) {
+                code.local(ClassBuilder.ALOAD, 3);
+                code.member(ClassBuilder.INVOKEVIRTUAL, BYTE_INPUT, readerName(type), "()" + readerResult(type));
+                if (type == char.class) {
+                    code.op(ClassBuilder.I2C);
+                } else if (type == short.class) {
+                    code.op(ClassBuilder.I2S);
+                }
+            } else {
+                code.field(ClassBuilder.GETSTATIC, builder.getName(), codecName, "L" + REFERENCE_CODEC + ";");
+                code.local(ClassBuilder.ALOAD, 3);
+                code.member(ClassBuilder.INVOKEVIRTUAL, REFERENCE_CODEC, "readBinaryValue",
+                        "(L" + BYTE_INPUT + ";)Ljava/lang/Object;");
+                if (writer != null) {
+                    code.type(ClassBuilder.CHECKCAST, internalName(type));
+                }
+            }
+            if (writer == null) {
+                String descriptor = type.isPrimitive() ? descriptor(type) : "Ljava/lang/Object;";
+                code.member(ClassBuilder.INVOKEVIRTUAL, accessorType(type), "set" + kindName(type),
+                        "(Ljava/lang/Object;" + descriptor + ")V");
+            } else if (writer instanceof Field) {
+                code.field(ClassBuilder.PUTFIELD, internalName(writer.getDeclaringClass()), writer.getName(),
+                        descriptor(type));
+            } else {
+                code.member(ClassBuilder.INVOKEVIRTUAL, internalName(writer.getDeclaringClass()), writer.getName(),
+                        "(" + descriptor(type) + ")V");
+            }
+        }
+
+        private void writeKey(ClassBuilder.Code code) {
+            code.local(ClassBuilder.ALOAD, 2);
+            if (fieldIds) {
+                code.push(codec.getId());
+                code.member(ClassBuilder.INVOKEVIRTUAL, BYTE_OUTPUT, "writeVarInt", "(I)V");
+            } else {
+                code.field(ClassBuilder.GETSTATIC, builder.getName(), keyName, "[B");
+                code.member(ClassBuilder.INVOKEVIRTUAL, BYTE_OUTPUT, "writeBytes", "([B)V");
+            }
+        }
+
+        //the value of the field of obj, boxed when the FieldAccessor reads a reference
+        private void loadValue(ClassBuilder.Code code) {
+            if (reader == null) {
+                code.field(ClassBuilder.GETSTATIC, builder.getName(), accessorName, "L" + accessorType(type) + ";");
+                code.local(ClassBuilder.ALOAD, 1);
+                String descriptor = type.isPrimitive() ? descriptor(type) : "Ljava/lang/Object;";
+                code.member(ClassBuilder.INVOKEVIRTUAL, accessorType(type), "get" + kindName(type),
+                        "(Ljava/lang/Object;)" + descriptor);
+                return;
+            }
+            receiver(code, 1, reader);
+            String owner = internalName(reader.getDeclaringClass());
+            if (reader instanceof Field) {
+                code.field(ClassBuilder.GETFIELD, owner, reader.getName(), descriptor(type));
+            } else {
+                code.member(ClassBuilder.INVOKEVIRTUAL, owner, reader.getName(), "()" + descriptor(type));
+            }
+        }
+
+        //the object, cast to the class declaring the member; no local is stored, so the frames stay the same
+        private static void receiver(ClassBuilder.Code code, int local, Member member) {
+            code.local(ClassBuilder.ALOAD, local);
+            code.type(ClassBuilder.CHECKCAST, internalName(member.getDeclaringClass()));
+        }
+
+        private static Member reader(FieldMetadata metadata, Field field, SpunClasses.Loader loader) {
+            if (field != null && Modifier.isPublic(field.getModifiers())
+                    && visible(field.getDeclaringClass(), loader)) {
+                return field;
+            }
+            String name = ClassUtils.getterName(metadata.getName(), metadata.getType() == boolean.class);
+            Method getter = publicMethod(metadata.getDeclaringClass(), name);
+            return getter != null && getter.getReturnType() == metadata.getType()
+                    && visible(getter.getDeclaringClass(), loader) ? getter : null;
+        }
+
+        private static Member writer(FieldMetadata metadata, Field field, SpunClasses.Loader loader) {
+            if (field != null && Modifier.isPublic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+                    && visible(field.getDeclaringClass(), loader)) {
+                return field;
+            }
+            String name = ClassUtils.setterName(metadata.getName(), metadata.getType() == boolean.class);
+            Method setter = publicMethod(metadata.getDeclaringClass(), name, metadata.getType());
+            return setter != null && setter.getReturnType() == void.class
+                    && visible(setter.getDeclaringClass(), loader) ? setter : null;
+        }
+
+        private static Field declaredField(FieldMetadata metadata) {
+            try {
+                return metadata.getDeclaringClass().getDeclaredField(metadata.getName());
+            } catch (NoSuchFieldException e) {
+                return null;
+            }
+        }
+
+        //instance methods of classes only, interfaces would need invokeinterface
+        private static Method publicMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                Method method = type.getMethod(name, parameterTypes);
+                return Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass().isInterface()
+                        ? null : method;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static boolean visible(Class<?> type, SpunClasses.Loader loader) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+            for (Class<?> enclosing = type; enclosing != null; enclosing = enclosing.getEnclosingClass()) {
+                if (!Modifier.isPublic(enclosing.getModifiers())) {
+                    return false;
+                }
+            }
+            return loader.resolves(type);
+        }
+    }
+
+    private static String accessorType(Class<?> type) {
+        return type.isPrimitive() ? FIELD_ACCESSOR + "$" + FieldAccessor.kindName(type) + "Accessor" : FIELD_ACCESSOR;
+    }
+
+    private static String kindName(Class<?> type) {
+        return type.isPrimitive() ? FieldAccessor.kindName(type) : "";
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return MethodType.methodType(type).toMethodDescriptorString().substring(2);
+    }
+
+    //the encodings of the primitive FieldCodecs, which the generated code has to match
+    private static String writerName(Class<?> type) {
+        if (type == boolean.class) {
+            return "writeBoolean";
+        } else if (type == byte.class) {
+            return "writeByte";
+        } else if (type == char.class) {
+            return "writeVarInt";
+        } else if (type == long.class) {
+            return "writeSignedVarLong";
+        } else if (type == float.class) {
+            return "writeFloat";
+        } else if (type == double.class) {
+            return "writeDouble";
+        }
+        return "writeSignedVarInt";
+    }
+
+    private static String readerName(Class<?> type) {
+        return "read" + writerName(type).substring("write".length());
+    }
+
+    //ByteOutput takes ints for byte, char and short
+    private static String writerParameter(Class<?> type) {
+        return type == byte.class || type == char.class || type == short.class ? "I" : descriptor(type);
+    }
+
+    //ByteInput reads char and short as varints
+    private static String readerResult(Class<?> type) {
+        return type == char.class || type == short.class ? "I" : descriptor(type);
+    }
+}
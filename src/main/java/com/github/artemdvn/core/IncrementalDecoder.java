@@ -0,0 +1,118 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+//Decodes records framed as by Serializer.writeAll from chunks of bytes as they arrive, e.g. from a non-blocking
+//channel. Partial length prefixes and records are kept between calls, so the caller never waits for more input.
+//The length prefix comes from the peer, so a bounded maxMessageSize is required. Not thread-safe,
+//one decoder per connection
+public class IncrementalDecoder<T> {
+
+    private static final int INITIAL_PENDING_SIZE = 256;
+    //a buffer grown past this for a split record is dropped once the record is decoded
+    private static final int MAX_RETAINED_PENDING_SIZE = 1 << 16;
+
+    private final Deserializer deserializer;
+    private final Class<T> type;
+    private final int maxMessageSize;
+    private boolean readingLength = true;
+    //length prefix decoded so far
+    private int length;
+    private int shift;
+    //bytes of a record that arrived split over several chunks, grown as they arrive
+    private byte[] pending = new byte[INITIAL_PENDING_SIZE];
+    private int filled;
+
+    public IncrementalDecoder(Deserializer deserializer, Class<T> type, int maxMessageSize) {
+        if (maxMessageSize <= 0 || maxMessageSize == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Incremental decoding requires a bounded max message size");
+        }
+        this.deserializer = deserializer;
+        this.type = type;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    //consumes the whole chunk and hands every record completed by it to the consumer
+    public void feed(ByteBuffer chunk, Consumer<? super T> consumer) {
+        try {
+            while (chunk.hasRemaining()) {
+                if (readingLength) {
+                    readLength(chunk.get());
+                    if (!readingLength && length == 0) {
+                        emit(ByteBuffer.allocate(0), consumer);
+                    }
+                } else if (filled == 0 && chunk.remaining() >= length) {
+                    //the whole record is in this chunk, decoded in place
+                    ByteBuffer record = chunk.duplicate();
+                    record.limit(chunk.position() + length);
+                    chunk.position(chunk.position() + length);
+                    emit(record, consumer);
+                } else {
+                    int count = Math.min(chunk.remaining(), length - filled);
+                    ensurePending(filled + count);
+                    chunk.get(pending, filled, count);
+                    filled += count;
+                    if (filled == length) {
+                        emit(ByteBuffer.wrap(pending, 0, length), consumer);
+                        if (pending.length > MAX_RETAINED_PENDING_SIZE) {
+                            pending = new byte[INITIAL_PENDING_SIZE];
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            //the stream is out of step after a broken record, start over with the next chunk
+            reset();
+            throw e;
+        }
+    }
+
+    //true while a record has started but not completed
+    public boolean hasPartialRecord() {
+        return !readingLength || shift > 0;
+    }
+
+    public void reset() {
+        readingLength = true;
+        length = 0;
+        shift = 0;
+        filled = 0;
+    }
+
+    private void readLength(byte b) {
+        length |= (b & 0x7F) << shift;
+        shift += 7;
+        if (b < 0) {
+            if (shift >= 35) {
+                throw new DeserializationException("Deserialization exception: malformed varint");
+            }
+            return;
+        }
+        if (length < 0 || length > maxMessageSize) {
+            throw new DeserializationException("Deserialization exception: invalid record length " + length);
+        }
+        readingLength = false;
+        shift = 0;
+    }
+
+    //doubles up to the record length, so a length prefix alone never claims the memory of the whole record
+    private void ensurePending(int size) {
+        if (pending.length < size) {
+            pending = Arrays.copyOf(pending, Math.min(length, Math.max(size, pending.length * 2)));
+        }
+    }
+
+    private void emit(ByteBuffer record, Consumer<? super T> consumer) {
+        int end = record.limit();
+        T result = deserializer.deserialize(record, type);
+        if (record.position() != end) {
+            throw new DeserializationException("Deserialization exception: record does not match its frame length");
+        }
+        reset();
+        consumer.accept(result);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.artemdvn.core;
+
+@FunctionalInterface
+public interface Instantiator {
+
+    Object newInstance() throws ReflectiveOperationException;
+}
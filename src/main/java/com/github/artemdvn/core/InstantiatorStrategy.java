@@ -0,0 +1,9 @@
+package com.github.artemdvn.core;
+
+//Supplies instances of classes that have no usable no-arg constructor
+@FunctionalInterface
+public interface InstantiatorStrategy {
+
+    //returns null when this strategy cannot create the type either
+    Instantiator instantiatorFor(Class<?> type);
+}
@@ -0,0 +1,64 @@
+package com.github.artemdvn.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+
+public class Instantiators {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    public static Instantiator resolve(Class<?> type, InstantiatorStrategy fallback) {
+        Instantiator instantiator = noArgConstructor(type);
+        if (instantiator == null && fallback != null) {
+            instantiator = fallback.instantiatorFor(type);
+        }
+        if (instantiator == null) {
+            //fail on use, the type may still be serialized
+            return () -> {
+                throw new InstantiationException("No instantiator for " + type.getName());
+            };
+        }
+        return instantiator;
+    }
+
+    private static Instantiator noArgConstructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        MethodHandle constructor;
+        try {
+            Constructor<?> noArgConstructor = type.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            constructor = LOOKUP.unreflectConstructor(noArgConstructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        return new ConstructorInstantiator(constructor);
+    }
+
+    static class ConstructorInstantiator implements Instantiator {
+
+        private final MethodHandle constructor;
+
+        ConstructorInstantiator(MethodHandle constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object newInstance() throws ReflectiveOperationException {
+            try {
+                return constructor.invokeExact();
+            } catch (RuntimeException | Error | ReflectiveOperationException e) {
+                throw e;
+            } catch (Throwable e) {
+                InstantiationException exception = new InstantiationException(e.getMessage());
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+    }
+}
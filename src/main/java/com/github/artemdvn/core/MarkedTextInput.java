@@ -0,0 +1,171 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import static com.github.artemdvn.core.Separators.BEGIN_COLLECTION;
+import static com.github.artemdvn.core.Separators.BEGIN_MAP;
+import static com.github.artemdvn.core.Separators.BEGIN_OBJECT;
+import static com.github.artemdvn.core.Separators.END_COLLECTION;
+import static com.github.artemdvn.core.Separators.END_MAP;
+import static com.github.artemdvn.core.Separators.END_OBJECT;
+import static com.github.artemdvn.core.Separators.ESCAPE;
+import static com.github.artemdvn.core.Separators.KEY_VALUE_CHAR;
+import static com.github.artemdvn.core.Separators.NULL_MARKER;
+import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+import static com.github.artemdvn.core.Separators.UNIT_SEPARATOR;
+
+//TEXT_V2: a value ends at the first unescaped control character or '=', whatever the depth,
+//so the cursor keeps no state per level
+public class MarkedTextInput extends TextInput {
+
+    private static final long KEY_VALUE_BYTES = Swar.pattern(KEY_VALUE_CHAR);
+
+    public MarkedTextInput(byte[] buffer, int offset, int length) {
+        super(buffer, offset, length);
+    }
+
+    @Override
+    public void beginObject() {
+        expect(BEGIN_OBJECT);
+    }
+
+    @Override
+    public boolean nextField() {
+        skip(UNIT_SEPARATOR);
+        return !peek(END_OBJECT);
+    }
+
+    @Override
+    public void endObject() {
+        expect(END_OBJECT);
+    }
+
+    @Override
+    public int skipKey() {
+        int end = valueEnd(position);
+        position = end;
+        expect(KEY_VALUE_CHAR);
+        return end;
+    }
+
+    @Override
+    public boolean beginElements() {
+        expect(BEGIN_COLLECTION);
+        return skip(OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public boolean nextElement() {
+        return skip(OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public void endElements() {
+        expect(END_COLLECTION);
+    }
+
+    @Override
+    public void beginMap() {
+        expect(BEGIN_MAP);
+    }
+
+    @Override
+    public boolean nextEntry() {
+        skip(UNIT_SEPARATOR);
+        return !peek(END_MAP);
+    }
+
+    @Override
+    public void endMap() {
+        expect(END_MAP);
+    }
+
+    @Override
+    public void beginMapKey() {
+    }
+
+    @Override
+    public void endMapKey() {
+        if (!skip(KEY_VALUE_CHAR)) {
+            throw new DeserializationException("Deserialization exception: map entry without a value");
+        }
+    }
+
+    @Override
+    public boolean skipNull() {
+        return skip(NULL_MARKER);
+    }
+
+    @Override
+    public String readValue() {
+        int start = position;
+        position = valueEnd(position);
+        String value = Utf8.decode(buffer, start, position - start);
+        return value.indexOf(ESCAPE) < 0 ? value : unescape(value);
+    }
+
+    //words without a control character or '=' are skipped eight bytes at a time
+    @Override
+    protected int valueEnd(int from) {
+        int end = from;
+        while (true) {
+            if (end <= limit - Swar.WORD_BYTES) {
+                long word = Swar.readWord(buffer, end);
+                long flags = Swar.lessThan(word, 0x20) | Swar.equalTo(word, KEY_VALUE_BYTES);
+                if (flags == 0) {
+                    end += Swar.WORD_BYTES;
+                    continue;
+                }
+                end += Swar.firstIndex(flags);
+            } else if (end == limit) {
+                return end;
+            }
+            byte b = buffer[end];
+            if (b == ESCAPE) {
+                if (end + 1 == limit) {
+                    throw new DeserializationException("Deserialization exception: escape at the end of the message");
+                }
+                end += 2;
+            } else if ((b >= 0 && b < 0x20) || b == KEY_VALUE_CHAR) {
+                return end;
+            } else {
+                end++;
+            }
+        }
+    }
+
+    private boolean peek(int marker) {
+        return position < limit && buffer[position] == marker;
+    }
+
+    private boolean skip(int marker) {
+        if (peek(marker)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(int marker) {
+        if (!skip(marker)) {
+            throw new DeserializationException("Deserialization exception: expected " + describe(marker)
+                    + " at offset " + position);
+        }
+    }
+
+    private static String describe(int marker) {
+        return marker == KEY_VALUE_CHAR ? "'='" : "control character " + marker;
+    }
+
+    private static String unescape(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ESCAPE) {
+                c = value.charAt(++i);
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+}
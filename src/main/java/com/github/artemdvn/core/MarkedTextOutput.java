@@ -0,0 +1,109 @@
+package com.github.artemdvn.core;
+
+import static com.github.artemdvn.core.Separators.BEGIN_COLLECTION;
+import static com.github.artemdvn.core.Separators.BEGIN_MAP;
+import static com.github.artemdvn.core.Separators.BEGIN_OBJECT;
+import static com.github.artemdvn.core.Separators.END_COLLECTION;
+import static com.github.artemdvn.core.Separators.END_MAP;
+import static com.github.artemdvn.core.Separators.END_OBJECT;
+import static com.github.artemdvn.core.Separators.ESCAPE;
+import static com.github.artemdvn.core.Separators.KEY_VALUE_CHAR;
+import static com.github.artemdvn.core.Separators.NULL_MARKER;
+import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+import static com.github.artemdvn.core.Separators.UNIT_SEPARATOR;
+
+//TEXT_V2: objects, collections and maps are enclosed in begin/end markers and every value is preceded by '=',
+//fields and entries are separated by UNIT_SEPARATOR and each element starts with OBJECT_SEPARATOR.
+//Control characters and '=' inside values are prefixed with ESCAPE, so no delimiter depends on the depth
+public class MarkedTextOutput extends TextOutput {
+
+    public MarkedTextOutput(StringBuilder builder) {
+        super(builder);
+    }
+
+    @Override
+    public void append(char value) {
+        if (value < 0x20 || value == KEY_VALUE_CHAR) {
+            builder.append((char) ESCAPE);
+        }
+        builder.append(value);
+    }
+
+    @Override
+    public void writeString(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c == KEY_VALUE_CHAR) {
+                builder.append((char) ESCAPE);
+            }
+            builder.append(c);
+        }
+    }
+
+    @Override
+    public void writeNull() {
+        builder.append((char) NULL_MARKER);
+    }
+
+    @Override
+    public void objectKey(String key) {
+        key(key);
+    }
+
+    @Override
+    public void collectionKey(String key) {
+        key(key);
+    }
+
+    @Override
+    public void mapKey(String key) {
+        key(key);
+    }
+
+    @Override
+    public void beginObject() {
+        builder.append((char) BEGIN_OBJECT);
+    }
+
+    @Override
+    public void fieldSeparator() {
+        builder.append((char) UNIT_SEPARATOR);
+    }
+
+    @Override
+    public void endObject() {
+        builder.append((char) END_OBJECT);
+    }
+
+    @Override
+    public void beginCollection() {
+        builder.append((char) BEGIN_COLLECTION);
+    }
+
+    //a marker in front of every element tells an empty string apart from an empty collection
+    @Override
+    public void beginElement(boolean first) {
+        builder.append((char) OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public void endCollection() {
+        builder.append((char) END_COLLECTION);
+    }
+
+    @Override
+    public void beginMap() {
+        builder.append((char) BEGIN_MAP);
+    }
+
+    @Override
+    public void entrySeparator() {
+        builder.append((char) UNIT_SEPARATOR);
+    }
+
+    @Override
+    public void endMap() {
+        builder.append((char) END_MAP);
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.artemdvn.core;
+
+import java.nio.ByteBuffer;
+
+//Per-thread reusable buffers and outputs of the serialize path, so that a warmed-up thread allocates none of them
+//per message
+final class OutputBuffers {
+
+    //buffers grown past this are dropped after use rather than kept alive by the thread
+    static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<OutputBuffers> POOL = ThreadLocal.withInitial(() -> new OutputBuffers(true));
+
+    private final ArrayByteOutput bytes = new ArrayByteOutput(1024);
+    private final StringBuilder text = new StringBuilder(1024);
+    private final TextOutput separatedText = new SeparatedTextOutput(text);
+    private final TextOutput markedText = new MarkedTextOutput(text);
+    private final CountingByteOutput counter = new CountingByteOutput();
+    private final BufferByteOutput bufferOutput = new BufferByteOutput(null);
+    private final boolean pooled;
+    private boolean inUse;
+
+    private OutputBuffers(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    //a nested call on the same thread, e.g. from a getter, gets its own buffers
+    static OutputBuffers acquire() {
+        OutputBuffers buffers = POOL.get();
+        if (buffers.inUse) {
+            return new OutputBuffers(false);
+        }
+        buffers.inUse = true;
+        return buffers;
+    }
+
+    void release() {
+        inUse = false;
+        //the caller's buffer is not held on to by the thread
+        bufferOutput.target(null);
+        if (pooled && (bytes.capacity() > MAX_POOLED_CAPACITY || text.capacity() > MAX_POOLED_CAPACITY)) {
+            POOL.remove();
+        }
+    }
+
+    ArrayByteOutput bytes() {
+        bytes.reset();
+        return bytes;
+    }
+
+    CountingByteOutput counter() {
+        counter.reset();
+        return counter;
+    }
+
+    //writes from the buffer position on
+    BufferByteOutput buffer(ByteBuffer target) {
+        bufferOutput.target(target).reset();
+        return bufferOutput;
+    }
+
+    TextOutput text(Format format) {
+        TextOutput output = format == Format.TEXT_V2 ? markedText : separatedText;
+        output.reset();
+        return output;
+    }
+}
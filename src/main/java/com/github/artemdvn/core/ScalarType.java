@@ -0,0 +1,172 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+import com.github.artemdvn.util.ClassUtils;
+
+//Type tag for primitive and boxed values, resolved once per field when a plan is compiled
+public enum ScalarType {
+    BOOLEAN {
+        @Override
+        public Object parse(String value) {
+            return Boolean.parseBoolean(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeBoolean((Boolean) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readBoolean();
+        }
+    },
+    BYTE {
+        @Override
+        public Object parse(String value) {
+            return Byte.parseByte(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeByte((Byte) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readByte();
+        }
+    },
+    CHAR {
+        @Override
+        public Object parse(String value) {
+            return parseChar(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeVarInt((Character) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return (char) in.readVarInt();
+        }
+    },
+    SHORT {
+        @Override
+        public Object parse(String value) {
+            return Short.parseShort(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeSignedVarInt((Short) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return (short) in.readSignedVarInt();
+        }
+    },
+    INT {
+        @Override
+        public Object parse(String value) {
+            return Integer.parseInt(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeSignedVarInt((Integer) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readSignedVarInt();
+        }
+    },
+    LONG {
+        @Override
+        public Object parse(String value) {
+            return Long.parseLong(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeSignedVarLong((Long) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readSignedVarLong();
+        }
+    },
+    FLOAT {
+        @Override
+        public Object parse(String value) {
+            return Float.parseFloat(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeFloat((Float) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readFloat();
+        }
+    },
+    DOUBLE {
+        @Override
+        public Object parse(String value) {
+            return Double.parseDouble(value);
+        }
+
+        @Override
+        public void writeBinary(ByteOutput out, Object value) {
+            out.writeDouble((Double) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readDouble();
+        }
+    };
+
+    public abstract Object parse(String value);
+
+    public abstract void writeBinary(ByteOutput out, Object value);
+
+    public abstract Object readBinary(ByteInput in);
+
+    //a char is written as itself, anything else in its place is malformed input
+    static char parseChar(String value) {
+        if (value.length() != 1) {
+            throw new DeserializationException("Deserialization exception: invalid char value \"" + value + "\"");
+        }
+        return value.charAt(0);
+    }
+
+    public static ScalarType forType(Class<?> type) {
+        Class<?> boxed = ClassUtils.box(type);
+        if (boxed == Boolean.class) {
+            return BOOLEAN;
+        } else if (boxed == Byte.class) {
+            return BYTE;
+        } else if (boxed == Character.class) {
+            return CHAR;
+        } else if (boxed == Short.class) {
+            return SHORT;
+        } else if (boxed == Integer.class) {
+            return INT;
+        } else if (boxed == Long.class) {
+            return LONG;
+        } else if (boxed == Float.class) {
+            return FLOAT;
+        } else if (boxed == Double.class) {
+            return DOUBLE;
+        }
+        throw new IllegalArgumentException("Not a scalar type: " + type.getName());
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import static com.github.artemdvn.core.Separators.COLLECTION_SEPARATOR;
+import static com.github.artemdvn.core.Separators.FIELD_SEPARATOR;
+import static com.github.artemdvn.core.Separators.KEY_VALUE_CHAR;
+import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+
+//TEXT: a value ends at the separator of its own level or of any enclosing one: field separators from
+//FIELD_SEPARATOR up to the innermost level, OBJECT_SEPARATOR inside collection elements, and '=' inside map keys
+public class SeparatedTextInput extends TextInput {
+
+    private static final String NULL = "null";
+    private static final long SEPARATOR_LEAD = Swar.pattern(0xC2);
+    private static final long OBJECT_SEPARATOR_BYTES = Swar.pattern(OBJECT_SEPARATOR);
+    private static final long COLLECTION_SEPARATOR_BYTES = Swar.pattern(COLLECTION_SEPARATOR);
+    private static final long KEY_VALUE_BYTES = Swar.pattern(KEY_VALUE_CHAR);
+
+    //innermost field separator that ends a value, below FIELD_SEPARATOR outside of any object
+    private int maxSeparator = FIELD_SEPARATOR - 1;
+    //collections entered and not left yet, OBJECT_SEPARATOR ends values inside any of them
+    private int elementDepth;
+    private boolean inMapKey;
+
+    public SeparatedTextInput(byte[] buffer, int offset, int length) {
+        super(buffer, offset, length);
+    }
+
+    @Override
+    public void beginObject() {
+        maxSeparator++;
+    }
+
+    //empty fields between two separators are skipped
+    @Override
+    public boolean nextField() {
+        while (skip(maxSeparator)) {
+        }
+        return !atEnd();
+    }
+
+    @Override
+    public void endObject() {
+        maxSeparator--;
+    }
+
+    //key up to '=', COLLECTION_SEPARATOR or OBJECT_SEPARATOR
+    @Override
+    public int skipKey() {
+        int end = scan(position, true);
+        position = end < limit && terminatorLength(end) == 0 ? end + 1 : end;
+        return end;
+    }
+
+    //an empty element between two separators is kept, a collection with nothing at all is empty
+    @Override
+    public boolean beginElements() {
+        boolean empty = atEnd();
+        elementDepth++;
+        return !empty;
+    }
+
+    @Override
+    public boolean nextElement() {
+        return skip(OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public void endElements() {
+        elementDepth--;
+    }
+
+    @Override
+    public void beginMap() {
+        maxSeparator++;
+    }
+
+    @Override
+    public boolean nextEntry() {
+        return nextField();
+    }
+
+    @Override
+    public void endMap() {
+        maxSeparator--;
+    }
+
+    @Override
+    public void beginMapKey() {
+        inMapKey = true;
+    }
+
+    @Override
+    public void endMapKey() {
+        inMapKey = false;
+        if (!skip(KEY_VALUE_CHAR)) {
+            throw new DeserializationException("Deserialization exception: map entry without a value");
+        }
+    }
+
+    //"null" making up the whole value
+    @Override
+    public boolean skipNull() {
+        if (limit - position < NULL.length()) {
+            return false;
+        }
+        for (int i = 0; i < NULL.length(); i++) {
+            if (buffer[position + i] != NULL.charAt(i)) {
+                return false;
+            }
+        }
+        int end = position + NULL.length();
+        if (end != limit && terminatorLength(end) == 0) {
+            return false;
+        }
+        position = end;
+        return true;
+    }
+
+    @Override
+    public String readValue() {
+        int start = position;
+        position = valueEnd(position);
+        return Utf8.decode(buffer, start, position - start);
+    }
+
+    @Override
+    protected int valueEnd(int from) {
+        return scan(from, false);
+    }
+
+    //index of the first terminator from the given one, or of '=', COLLECTION_SEPARATOR or OBJECT_SEPARATOR
+    //in a key; eight bytes are tested at a time for the bytes that can start one, and only those are decoded
+    private int scan(int from, boolean key) {
+        boolean objectSeparator = key || elementDepth > 0;
+        boolean keyValueChar = key || inMapKey;
+        //separators up to U+00BF all start with 0xC2, deeper ones with any lead byte up to 0xDF
+        boolean singleLead = maxSeparator < 0xC0;
+        int end = from;
+        while (end <= limit - Swar.WORD_BYTES) {
+            long word = Swar.readWord(buffer, end);
+            long flags = singleLead ? Swar.equalTo(word, SEPARATOR_LEAD) : Swar.highBits(word);
+            if (objectSeparator) {
+                flags |= Swar.equalTo(word, OBJECT_SEPARATOR_BYTES);
+            }
+            if (keyValueChar) {
+                flags |= Swar.equalTo(word, KEY_VALUE_BYTES);
+            }
+            if (key) {
+                flags |= Swar.equalTo(word, COLLECTION_SEPARATOR_BYTES);
+            }
+            if (flags == 0) {
+                end += Swar.WORD_BYTES;
+                continue;
+            }
+            end += Swar.firstIndex(flags);
+            if (stopsAt(end, key)) {
+                return end;
+            }
+            end++;
+        }
+        while (end < limit && !stopsAt(end, key)) {
+            end++;
+        }
+        return end;
+    }
+
+    private boolean stopsAt(int index, boolean key) {
+        if (terminatorLength(index) > 0) {
+            return true;
+        }
+        byte b = buffer[index];
+        return key && (b == KEY_VALUE_CHAR || b == COLLECTION_SEPARATOR || b == OBJECT_SEPARATOR);
+    }
+
+    //at the end of the current value
+    private boolean atEnd() {
+        return position == limit || terminatorLength(position) > 0;
+    }
+
+    //consumes the separator when it is next
+    private boolean skip(int separator) {
+        if (position == limit) {
+            return false;
+        }
+        if (separator < 0x80) {
+            if (buffer[position] == separator) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+        if (charAt(position) == separator) {
+            position += 2;
+            return true;
+        }
+        return false;
+    }
+
+    //length in bytes of the terminator at the index, 0 when there is none
+    private int terminatorLength(int index) {
+        int b = buffer[index] & 0xFF;
+        if (b < 0x80) {
+            return (b == OBJECT_SEPARATOR && elementDepth > 0) || (b == KEY_VALUE_CHAR && inMapKey) ? 1 : 0;
+        }
+        //all field separators are two byte sequences, continuation bytes never start a char
+        if (b < 0xC2 || b > 0xDF || index + 1 == limit) {
+            return 0;
+        }
+        int c = charAt(index);
+        return c >= FIELD_SEPARATOR && c <= maxSeparator ? 2 : 0;
+    }
+
+    private int charAt(int index) {
+        int b = buffer[index] & 0xFF;
+        if (b < 0x80) {
+            return b;
+        }
+        if (b < 0xC2 || b > 0xDF || index + 1 == limit) {
+            return -1;
+        }
+        return (b & 0x1F) << 6 | buffer[index + 1] & 0x3F;
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.SerializationException;
+
+import static com.github.artemdvn.core.Separators.COLLECTION_SEPARATOR;
+import static com.github.artemdvn.core.Separators.FIELD_SEPARATOR;
+import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+
+//TEXT: the fields of an object are separated by FIELD_SEPARATOR + depth, nested values have no end marker
+public class SeparatedTextOutput extends TextOutput {
+
+    private static final String NULL = "null";
+    //separators are read back as two byte UTF-8 sequences, which end here
+    private static final int MAX_SEPARATOR = 0x7FF;
+
+    //field separator of the innermost object or map
+    private int separator = FIELD_SEPARATOR - 1;
+
+    public SeparatedTextOutput(StringBuilder builder) {
+        super(builder);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        separator = FIELD_SEPARATOR - 1;
+    }
+
+    @Override
+    public void append(char value) {
+        builder.append(value);
+    }
+
+    @Override
+    public void writeString(String value) {
+        builder.append(value);
+    }
+
+    @Override
+    public void writeNull() {
+        builder.append(NULL);
+    }
+
+    @Override
+    public void objectKey(String key) {
+        builder.append(key).append((char) OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public void collectionKey(String key) {
+        builder.append(key).append((char) COLLECTION_SEPARATOR);
+    }
+
+    @Override
+    public void mapKey(String key) {
+        builder.append(key).append((char) OBJECT_SEPARATOR);
+    }
+
+    @Override
+    public void beginObject() {
+        descend();
+    }
+
+    @Override
+    public void fieldSeparator() {
+        builder.append((char) separator);
+    }
+
+    @Override
+    public void endObject() {
+        separator--;
+    }
+
+    @Override
+    public void beginCollection() {
+    }
+
+    @Override
+    public void beginElement(boolean first) {
+        if (!first) {
+            builder.append((char) OBJECT_SEPARATOR);
+        }
+    }
+
+    @Override
+    public void endCollection() {
+    }
+
+    //entries are separated like the fields of one more level, their values are one level deeper still
+    @Override
+    public void beginMap() {
+        descend();
+    }
+
+    @Override
+    public void entrySeparator() {
+        builder.append((char) separator);
+    }
+
+    @Override
+    public void endMap() {
+        separator--;
+    }
+
+    private void descend() {
+        if (++separator > MAX_SEPARATOR) {
+            throw new SerializationException("Serialization exception: object graph too deep for the TEXT format,"
+                    + " TEXT_V2 has no depth limit");
+        }
+    }
+}
@@ -5,4 +5,16 @@ public class Separators {
     public static final int OBJECT_SEPARATOR = 30; // RS - Record separator
     public static final int FIELD_SEPARATOR = 179; // |
     public static final String KEY_VALUE_SEPARATOR = "=";
+    public static final char KEY_VALUE_CHAR = '=';
+
+    //TEXT_V2 markers, the same at every depth
+    public static final int NULL_MARKER = 0; // NUL
+    public static final int BEGIN_OBJECT = 2; // STX - Start of text
+    public static final int END_OBJECT = 3; // ETX - End of text
+    public static final int BEGIN_COLLECTION = 14; // SO - Shift out
+    public static final int END_COLLECTION = 15; // SI - Shift in
+    public static final int BEGIN_MAP = 17; // DC1 - Device control 1
+    public static final int END_MAP = 18; // DC2 - Device control 2
+    public static final int ESCAPE = 27; // ESC - Escape
+    public static final int UNIT_SEPARATOR = 31; // US - Unit separator
 }
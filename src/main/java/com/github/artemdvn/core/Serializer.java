@@ -1,113 +1,235 @@
 package com.github.artemdvn.core;
 
 import com.github.artemdvn.exception.SerializationException;
-import com.github.artemdvn.util.ClassUtils;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-
-import static com.github.artemdvn.core.Separators.COLLECTION_SEPARATOR;
-import static com.github.artemdvn.core.Separators.FIELD_SEPARATOR;
-import static com.github.artemdvn.core.Separators.KEY_VALUE_SEPARATOR;
-import static com.github.artemdvn.core.Separators.OBJECT_SEPARATOR;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Serializer {
 
+    //framed records are collected up to about this size before each write to the stream
+    private static final int FRAME_BATCH_SIZE = 8192;
+
+    //parallel batches are split into about this many chunks per pool thread, but no smaller than MIN_CHUNK_SIZE
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private final CodecRegistry registry;
+
+    public Serializer() {
+        this(new CodecRegistry(SerializerOptions.DEFAULT));
+    }
+
+    public Serializer(CodecRegistry registry) {
+        this.registry = registry;
+    }
+
     public void serialize(OutputStream outputStream, Object obj) {
-        Map<String, Object> fieldsMap = getObjectFields(obj);
-        String serialized = mergeFields(fieldsMap, FIELD_SEPARATOR);
+        OutputBuffers buffers = OutputBuffers.acquire();
         try {
-            outputStream.write(serialized.getBytes());
+            write(obj, buffers).writeTo(outputStream);
+        } catch (ReflectiveOperationException e) {
+            throw new SerializationException("Serialization exception: error while reading object fields");
         } catch (IOException e) {
             throw new SerializationException("Serialization exception: error writing to output stream");
+        } finally {
+            buffers.release();
         }
     }
 
-    private Map<String, Object> getObjectFields(Object obj) {
-        Map<String, Object> fieldsMap = new HashMap<>();
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
+    //every record is prefixed with its length as a varint, so many of them can follow each other on one stream
+    public void writeAll(OutputStream outputStream, Iterable<?> objects) {
+        OutputBuffers buffers = OutputBuffers.acquire();
+        ArrayByteOutput frames = new ArrayByteOutput(FRAME_BATCH_SIZE * 2);
+        try {
+            for (Object obj : objects) {
+                writeFrame(obj, buffers, frames);
+                if (frames.size() >= FRAME_BATCH_SIZE) {
+                    frames.writeTo(outputStream);
+                    frames.reset();
+                }
+            }
+            frames.writeTo(outputStream);
+        } catch (ReflectiveOperationException e) {
+            throw new SerializationException("Serialization exception: error while reading object fields");
+        } catch (IOException e) {
+            throw new SerializationException("Serialization exception: error writing to output stream");
+        } finally {
+            buffers.release();
+        }
+    }
+
+    public void serializeAll(OutputStream outputStream, List<?> objects) {
+        serializeAll(outputStream, objects, ForkJoinPool.commonPool());
+    }
+
+    //same framing as writeAll; chunks of the list are encoded in parallel and written out in list order
+    //as soon as each of them and all chunks before it are done
+    public void serializeAll(OutputStream outputStream, List<?> objects, ForkJoinPool pool) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, objects.size() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        if (objects.size() <= chunkSize) {
+            writeAll(outputStream, objects);
+            return;
+        }
+        List<?> list = objects instanceof RandomAccess ? objects : new ArrayList<>(objects);
+        List<ForkJoinTask<ArrayByteOutput>> chunks = new ArrayList<>();
+        try {
+            for (int from = 0; from < list.size(); from += chunkSize) {
+                List<?> chunk = list.subList(from, Math.min(from + chunkSize, list.size()));
+                chunks.add(pool.submit(() -> writeFrames(chunk)));
+            }
+            for (ForkJoinTask<ArrayByteOutput> chunk : chunks) {
+                chunk.join().writeTo(outputStream);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Serialization exception: error writing to output stream");
+        } finally {
+            //no-op for finished chunks, stops the remaining ones after a failure
+            for (ForkJoinTask<ArrayByteOutput> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+    }
+
+    //writes from the buffer position on and advances it, returns the number of bytes written
+    public int serialize(ByteBuffer buffer, Object obj) {
+        int start = buffer.position();
+        try {
+            OutputBuffers buffers = OutputBuffers.acquire();
             try {
-                Class<?> type = field.getType();
-                if (ClassUtils.isPrimitive(type) || ClassUtils.isWrapper(type) || ClassUtils.isString(type)
-                        || ClassUtils.isEnum(type) || ClassUtils.isMap(type)) {
-                    //just put field name and value to map
-                    if (field.get(obj) != null) {
-                        fieldsMap.put(field.getName(), field.get(obj));
-                    }
-                } else if (ClassUtils.isCollection(type)) {
-                    //get actual type of objects in collection
-                    Class collectionElementType =
-                            (Class) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
-                    Collection collectionFieldValue = (Collection) field.get(obj);
-                    if (collectionFieldValue == null) {
-                        continue;
-                    }
-                    if (ClassUtils.isPrimitive(collectionElementType) || ClassUtils.isWrapper(collectionElementType)) {
-                        //save list of primitive values to map
-                        List<Object> listOfPrimitives = new ArrayList<>();
-                        listOfPrimitives.addAll(collectionFieldValue);
-                        fieldsMap.put(field.getName(), listOfPrimitives);
-                    } else {
-                        //serialize each non-primitive value from collection and save list of them to map
-                        List<Map<String, Object>> listOfNonPrimitives = new ArrayList<>();
-                        for (Object element : collectionFieldValue) {
-                            if (element != null) {
-                                listOfNonPrimitives.add(getObjectFields(element));
-                            }
-                        }
-                        fieldsMap.put(field.getName(), listOfNonPrimitives);
+                if (registry.getOptions().getFormat() == Format.BINARY) {
+                    checkNotNull(obj);
+                    if (checkSize(obj, buffers) > buffer.remaining()) {
+                        throw new BufferOverflowException();
                     }
+                    writeBinary(obj, buffers.buffer(buffer));
                 } else {
-                    //serialize non-primitive value and save it to map
-                    fieldsMap.put(field.getName(), getObjectFields(field.get(obj)));
+                    write(obj, buffers).writeTo(buffer);
                 }
-            } catch (IllegalAccessException e) {
-                throw new SerializationException("Serialization exception: error while reading object fields");
+            } finally {
+                buffers.release();
             }
+        } catch (ReflectiveOperationException e) {
+            buffer.position(start);
+            throw new SerializationException("Serialization exception: error while reading object fields");
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw new SerializationException("Serialization exception: not enough space in buffer");
         }
-        return fieldsMap;
-    }
-
-    private String mergeFields(Map<String, Object> fieldsMap, final int fieldSeparator) {
-        List<String> fieldsList = new ArrayList<>();
-        for (Map.Entry<String, Object> field : fieldsMap.entrySet()) {
-            StringBuilder builder = new StringBuilder();
-            Object fieldValue = field.getValue();
-            if (fieldValue == null) {
-                builder.append(field.getKey())
-                        .append(KEY_VALUE_SEPARATOR)
-                        .append("null");
-            } else if (ClassUtils.isCollection(fieldValue.getClass())) {
-                builder.append(field.getKey())
-                        .append((char) COLLECTION_SEPARATOR);
-                List<String> collectionValues = new ArrayList<>();
-                for (Object element : (List) fieldValue) {
-                    if (ClassUtils.isWrapper(element.getClass())) {
-                        collectionValues.add(element.toString());
-                    } else {
-                        collectionValues.add(mergeFields((Map) element, fieldSeparator + 1));
-                    }
-                }
-                builder.append(String.join(Character.toString((char) OBJECT_SEPARATOR), collectionValues));
-            } else if (ClassUtils.isMap(fieldValue.getClass())) {
-                builder.append(field.getKey())
-                        .append((char) OBJECT_SEPARATOR)
-                        .append(mergeFields((Map) fieldValue, fieldSeparator + 1));
-            } else {
-                builder.append(field.getKey())
-                        .append(KEY_VALUE_SEPARATOR)
-                        .append(fieldValue);
+        return buffer.position() - start;
+    }
+
+    private ArrayByteOutput writeFrames(List<?> objects) {
+        OutputBuffers buffers = OutputBuffers.acquire();
+        ArrayByteOutput frames = new ArrayByteOutput(FRAME_BATCH_SIZE);
+        try {
+            for (Object obj : objects) {
+                writeFrame(obj, buffers, frames);
+            }
+            return frames;
+        } catch (ReflectiveOperationException e) {
+            throw new SerializationException("Serialization exception: error while reading object fields");
+        } finally {
+            buffers.release();
+        }
+    }
+
+    private void writeFrame(Object obj, OutputBuffers buffers, ArrayByteOutput frames)
+            throws ReflectiveOperationException {
+        ArrayByteOutput record = write(obj, buffers);
+        frames.writeVarInt(record.size());
+        record.writeTo(frames);
+    }
+
+    //exact number of bytes serialize would write, found by the same field walk without writing anything
+    public int serializedSize(Object obj) {
+        OutputBuffers buffers = OutputBuffers.acquire();
+        try {
+            return measure(obj, buffers);
+        } catch (ReflectiveOperationException e) {
+            throw new SerializationException("Serialization exception: error while reading object fields");
+        } finally {
+            buffers.release();
+        }
+    }
+
+    private int measure(Object obj, OutputBuffers buffers) throws ReflectiveOperationException {
+        checkNotNull(obj);
+        if (registry.getOptions().getFormat() == Format.BINARY) {
+            CountingByteOutput counter = buffers.counter();
+            writeBinary(obj, counter);
+            return counter.size();
+        }
+        TextOutput text = buffers.text(registry.getOptions().getFormat());
+        registry.plan(obj.getClass()).write(obj, text);
+        return Utf8.length(text.chars());
+    }
+
+    //binary messages are measured up front when a size limit is set, -1 when there is none
+    private int checkSize(Object obj, OutputBuffers buffers) throws ReflectiveOperationException {
+        if (registry.getOptions().getMaxMessageSize() == Integer.MAX_VALUE) {
+            return -1;
+        }
+        int size = measure(obj, buffers);
+        checkLimit(size);
+        return size;
+    }
+
+    private void checkLimit(int size) {
+        int maxMessageSize = registry.getOptions().getMaxMessageSize();
+        if (size > maxMessageSize) {
+            throw new SerializationException("Serialization exception: message of " + size
+                    + " bytes exceeds the limit of " + maxMessageSize + " bytes");
+        }
+    }
+
+    private ArrayByteOutput write(Object obj, OutputBuffers buffers) throws ReflectiveOperationException {
+        checkNotNull(obj);
+        ArrayByteOutput output = buffers.bytes();
+        if (registry.getOptions().getFormat() == Format.BINARY) {
+            int size = checkSize(obj, buffers);
+            if (size > 0) {
+                output.ensureCapacity(size);
             }
-            fieldsList.add(builder.toString());
+            writeBinary(obj, output);
+            return output;
+        }
+        //the chars are built once, the limit is checked on their UTF-8 length before they are encoded
+        TextOutput text = buffers.text(registry.getOptions().getFormat());
+        registry.plan(obj.getClass()).write(obj, text);
+        if (registry.getOptions().getMaxMessageSize() != Integer.MAX_VALUE) {
+            int size = Utf8.length(text.chars());
+            checkLimit(size);
+            output.ensureCapacity(size);
+        }
+        output.writeUtf8(text.chars());
+        return output;
+    }
+
+    private static void checkNotNull(Object obj) {
+        if (obj == null) {
+            throw new SerializationException("Serialization exception: null object");
+        }
+    }
+
+    private void writeBinary(Object obj, ByteOutput output) throws ReflectiveOperationException {
+        if (registry.getOptions().isReferenceTracking()) {
+            output.trackReferences(obj);
+        }
+        if (registry.getOptions().isStringTable()) {
+            output.trackStrings();
+        }
+        try {
+            output.writeObject(registry.plan(obj.getClass()), obj);
+        } finally {
+            output.stopTracking();
         }
-        return String.join(Character.toString((char) fieldSeparator), fieldsList);
     }
 }
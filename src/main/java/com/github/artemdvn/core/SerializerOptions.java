@@ -0,0 +1,116 @@
+package com.github.artemdvn.core;
+
+public class SerializerOptions {
+
+    public static final SerializerOptions DEFAULT = new SerializerOptions();
+
+    private Format format = Format.TEXT;
+    private Engine engine = Engine.REFLECTIVE;
+    private InstantiatorStrategy instantiatorStrategy;
+    private EnumEncoding enumEncoding = EnumEncoding.NAME;
+    private FieldNaming fieldNaming = FieldNaming.NAMES;
+    private boolean referenceTracking;
+    private boolean stringTable;
+    private int maxMessageSize = Integer.MAX_VALUE;
+
+    private SerializerOptions() {
+    }
+
+    private SerializerOptions(SerializerOptions other) {
+        this.format = other.format;
+        this.engine = other.engine;
+        this.instantiatorStrategy = other.instantiatorStrategy;
+        this.enumEncoding = other.enumEncoding;
+        this.fieldNaming = other.fieldNaming;
+        this.referenceTracking = other.referenceTracking;
+        this.stringTable = other.stringTable;
+        this.maxMessageSize = other.maxMessageSize;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public SerializerOptions withFormat(Format format) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.format = format;
+        return copy;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    //binary format only: GENERATED spins a class per type to write, measure and read its fields
+    public SerializerOptions withEngine(Engine engine) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.engine = engine;
+        return copy;
+    }
+
+    public InstantiatorStrategy getInstantiatorStrategy() {
+        return instantiatorStrategy;
+    }
+
+    public SerializerOptions withInstantiatorStrategy(InstantiatorStrategy instantiatorStrategy) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.instantiatorStrategy = instantiatorStrategy;
+        return copy;
+    }
+
+    public EnumEncoding getEnumEncoding() {
+        return enumEncoding;
+    }
+
+    public SerializerOptions withEnumEncoding(EnumEncoding enumEncoding) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.enumEncoding = enumEncoding;
+        return copy;
+    }
+
+    public FieldNaming getFieldNaming() {
+        return fieldNaming;
+    }
+
+    public SerializerOptions withFieldNaming(FieldNaming fieldNaming) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.fieldNaming = fieldNaming;
+        return copy;
+    }
+
+    public boolean isReferenceTracking() {
+        return referenceTracking;
+    }
+
+    //binary format only: shared objects are written once and cycles are preserved
+    public SerializerOptions withReferenceTracking(boolean referenceTracking) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.referenceTracking = referenceTracking;
+        return copy;
+    }
+
+    public boolean isStringTable() {
+        return stringTable;
+    }
+
+    //binary format only: each distinct string is written once per message and repeats refer to it by index
+    public SerializerOptions withStringTable(boolean stringTable) {
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.stringTable = stringTable;
+        return copy;
+    }
+
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    //messages are measured before encoding and rejected when larger than this
+    public SerializerOptions withMaxMessageSize(int maxMessageSize) {
+        if (maxMessageSize <= 0) {
+            throw new IllegalArgumentException("Max message size must be positive");
+        }
+        SerializerOptions copy = new SerializerOptions(this);
+        copy.maxMessageSize = maxMessageSize;
+        return copy;
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.artemdvn.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Defines the classes written by ClassBuilder. The classes spun for one type share a loader, child of the library
+//one, so that they can be unloaded together with that type. The values of their static final fields are handed
+//over through constant(), which the superclass of every spun class exposes to its static initializer, and dropped
+//once the class is initialized
+final class SpunClasses {
+
+    private static final String PREFIX = "com/github/artemdvn/core/Spun$";
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final Map<String, Object[]> PENDING = new ConcurrentHashMap<>();
+
+    private SpunClasses() {
+    }
+
+    //only answers for a class of one of these loaders while it is being initialized
+    static Object constant(Class<?> owner, int index) {
+        Object[] constants = owner.getClassLoader() instanceof Loader ? PENDING.get(owner.getName()) : null;
+        if (constants == null) {
+            throw new IllegalStateException(owner.getName() + " is not a class being spun");
+        }
+        return constants[index];
+    }
+
+    static String name(String kind) {
+        return PREFIX + kind + '$' + COUNTER.incrementAndGet();
+    }
+
+    //the spun classes may refer to the type itself, which its own loader resolves
+    static Loader loader(Class<?> type) {
+        return new Loader(SpunClasses.class.getClassLoader(), type.getClassLoader());
+    }
+
+    static final class Loader extends ClassLoader {
+
+        private final ClassLoader typeLoader;
+
+        private Loader(ClassLoader parent, ClassLoader typeLoader) {
+            super(parent);
+            this.typeLoader = typeLoader;
+        }
+
+        Class<?> define(ClassBuilder builder, Object[] constants) throws ClassNotFoundException {
+            String name = builder.getName().replace('/', '.');
+            byte[] bytes = builder.toByteArray();
+            PENDING.put(name, constants);
+            try {
+                defineClass(name, bytes, 0, bytes.length);
+                return Class.forName(name, true, this);
+            } finally {
+                PENDING.remove(name);
+            }
+        }
+
+        //whether the spun classes name the same class, not another copy or none
+        boolean resolves(Class<?> type) {
+            try {
+                return Class.forName(type.getName(), false, this) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (typeLoader == null || typeLoader == getParent()) {
+                throw new ClassNotFoundException(name);
+            }
+            return Class.forName(name, false, typeLoader);
+        }
+    }
+}
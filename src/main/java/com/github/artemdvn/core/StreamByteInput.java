@@ -0,0 +1,199 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+//Pulls bytes from an InputStream through a fixed-size buffer, so a message is never held in memory as a whole
+public class StreamByteInput extends ByteInput {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    //reads only the bytes asked for, never ahead of them
+    private final boolean exact;
+    private int position;
+    private int limit;
+    //bytes dropped from the front of the buffer so far, to tell how much has been consumed in total
+    private long discarded;
+    //where the bytes of the last read start, the stream is marked there when it supports it
+    private int lastReadStart = -1;
+    //consumed() at which the current message has to end at the latest, see limitMessage
+    private long messageEnd = Long.MAX_VALUE;
+
+    public StreamByteInput(InputStream inputStream) {
+        this(inputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamByteInput(InputStream inputStream, int bufferSize) {
+        this(inputStream, bufferSize, false);
+    }
+
+    //exact input leaves whatever follows the bytes read in the stream, for streams that cannot take back
+    //what was read ahead; each read of the stream is then a small one, so it should be buffered itself
+    public StreamByteInput(InputStream inputStream, int bufferSize, boolean exact) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[bufferSize];
+        this.exact = exact;
+    }
+
+    public long consumed() {
+        return discarded + position;
+    }
+
+    //bounds the lengths read from here on, the stream itself does not tell where the message ends
+    public void limitMessage(int maxLength) {
+        messageEnd = consumed() + maxLength;
+    }
+
+    @Override
+    public int remaining() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, messageEnd - consumed()));
+    }
+
+    //true once the stream has ended and everything buffered has been consumed
+    public boolean isAtEnd() {
+        if (position < limit) {
+            return false;
+        }
+        compact();
+        int count = read(buffer, limit, exact ? 1 : buffer.length - limit);
+        if (count < 0) {
+            return true;
+        }
+        lastReadStart = inputStream.markSupported() ? limit : -1;
+        limit += count;
+        return false;
+    }
+
+    @Override
+    public byte readByte() {
+        if (position == limit) {
+            fill(1);
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public int readIntLE() {
+        require(4);
+        int value = (buffer[position] & 0xFF)
+                | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16
+                | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    public byte[] readBytes(int length) {
+        if (length < 0 || length > remaining()) {
+            throw invalidLength(length);
+        }
+        if (length <= buffer.length) {
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+        return readLong(length);
+    }
+
+    @Override
+    public String readUtf8(int length) {
+        if (length < 0 || length > remaining()) {
+            throw invalidLength(length);
+        }
+        if (length <= buffer.length) {
+            require(length);
+            String value = Utf8.decode(buffer, position, length);
+            position += length;
+            return value;
+        }
+        return Utf8.decode(readLong(length), 0, length);
+    }
+
+    //longer than the whole buffer, read past it straight from the stream. The length comes from the message, so
+    //the array starts at the buffer size and doubles as the bytes actually arrive, up to the length
+    private byte[] readLong(int length) {
+        int buffered = limit - position;
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + buffer.length);
+        discarded += limit;
+        position = 0;
+        limit = 0;
+        lastReadStart = -1;
+        for (int read = buffered; read < length; ) {
+            if (read == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int count = read(bytes, read, bytes.length - read);
+            if (count < 0) {
+                throw endOfInput();
+            }
+            read += count;
+            discarded += count;
+        }
+        return bytes;
+    }
+
+    //hands bytes read past the end of the message back to a stream that supports mark,
+    //so that whatever follows the message can still be read from it; exact input has none to hand back
+    public void unreadRemaining() throws IOException {
+        if (position == limit || lastReadStart < 0 || position < lastReadStart) {
+            return;
+        }
+        inputStream.reset();
+        long toSkip = position - lastReadStart;
+        while (toSkip > 0) {
+            long skipped = inputStream.skip(toSkip);
+            if (skipped <= 0) {
+                throw new IOException("Unable to skip consumed bytes");
+            }
+            toSkip -= skipped;
+        }
+        lastReadStart = -1;
+        position = limit;
+    }
+
+    private void require(int length) {
+        if (limit - position < length) {
+            fill(length);
+        }
+    }
+
+    private void fill(int length) {
+        compact();
+        while (limit < length) {
+            int count = read(buffer, limit, exact ? length - limit : buffer.length - limit);
+            if (count < 0) {
+                throw endOfInput();
+            }
+            lastReadStart = inputStream.markSupported() ? limit : -1;
+            limit += count;
+        }
+    }
+
+    private void compact() {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            discarded += position;
+            limit -= position;
+            lastReadStart = -1;
+            position = 0;
+        }
+    }
+
+    //-1 at the end of the stream
+    private int read(byte[] target, int offset, int length) {
+        try {
+            if (inputStream.markSupported()) {
+                inputStream.mark(length);
+            }
+            return inputStream.read(target, offset, length);
+        } catch (IOException e) {
+            throw new DeserializationException("Deserialization exception: error reading from input stream");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.artemdvn.core;
+
+//Word-at-a-time byte search: eight bytes of a byte[] are loaded as one little-endian long and tested at once.
+//The tests set the high bit of every matching byte; bytes above the first match may be flagged falsely,
+//so callers check the lowest flagged byte and go on scanning after it when it is not what they look for
+final class Swar {
+
+    static final int WORD_BYTES = 8;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private Swar() {
+    }
+
+    //the byte repeated in every byte of the word
+    static long pattern(int b) {
+        return ONES * (b & 0xFF);
+    }
+
+    static long equalTo(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGH_BITS;
+    }
+
+    //bytes below the given one, which must be at most 0x80
+    static long lessThan(long word, int b) {
+        return (word - ONES * b) & ~word & HIGH_BITS;
+    }
+
+    //bytes of 0x80 and above
+    static long highBits(long word) {
+        return word & HIGH_BITS;
+    }
+
+    //offset in the word of the lowest flagged byte, the flags must not be 0
+    static int firstIndex(long flags) {
+        return Long.numberOfTrailingZeros(flags) >>> 3;
+    }
+
+    //the byte at index goes to the lowest bits, there must be eight bytes from it.
+    //Plain byte loads: no alignment requirement and no dependence on the platform byte order
+    static long readWord(byte[] buffer, int index) {
+        return (buffer[index] & 0xFFL)
+                | (buffer[index + 1] & 0xFFL) << 8
+                | (buffer[index + 2] & 0xFFL) << 16
+                | (buffer[index + 3] & 0xFFL) << 24
+                | (buffer[index + 4] & 0xFFL) << 32
+                | (buffer[index + 5] & 0xFFL) << 40
+                | (buffer[index + 6] & 0xFFL) << 48
+                | (buffer[index + 7] & 0xFFL) << 56;
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.exception.DeserializationException;
+
+//Cursor over the UTF-8 bytes of a text message, read once from start to end.
+//The codecs walk the structure, begin/end of objects, collections and maps, and the implementation
+//of the format knows where each value ends
+public abstract class TextInput {
+
+    protected final byte[] buffer;
+    protected int position;
+    protected final int limit;
+
+    protected TextInput(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public static TextInput forFormat(Format format, byte[] buffer, int offset, int length) {
+        return format == Format.TEXT_V2
+                ? new MarkedTextInput(buffer, offset, length)
+                : new SeparatedTextInput(buffer, offset, length);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public abstract void beginObject();
+
+    //moves to the key of the next field, false after the last one
+    public abstract boolean nextField();
+
+    public abstract void endObject();
+
+    //field key up to the marker in front of its value, which is consumed as well;
+    //returns the end of the key, the key itself is left in the buffer for keyEquals and keyToInt
+    public abstract int skipKey();
+
+    //true when the collection has a first element to read
+    public abstract boolean beginElements();
+
+    public abstract boolean nextElement();
+
+    public abstract void endElements();
+
+    public abstract void beginMap();
+
+    public abstract boolean nextEntry();
+
+    public abstract void endMap();
+
+    public abstract void beginMapKey();
+
+    //consumes the '=' between the key and the value of an entry
+    public abstract void endMapKey();
+
+    //consumes the null value when it is next
+    public abstract boolean skipNull();
+
+    public abstract String readValue();
+
+    //end of the value starting at the index
+    protected abstract int valueEnd(int from);
+
+    public int readInt() {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range for int: " + value);
+        }
+        return (int) value;
+    }
+
+    //digits are accumulated straight from the bytes, without a String in between
+    public long readLong() {
+        int start = position;
+        int end = valueEnd(position);
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + Utf8.decode(buffer, start, end - start) + "\"");
+        }
+        //accumulated negatively so that Long.MIN_VALUE fits
+        long bound = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || result < bound / 10 || result * 10 < bound + digit) {
+                throw new NumberFormatException("For input string: \"" + Utf8.decode(buffer, start, end - start) + "\"");
+            }
+            result = result * 10 - digit;
+        }
+        position = end;
+        return negative ? result : -result;
+    }
+
+    public boolean keyEquals(int start, int end, byte[] name) {
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int keyToInt(int start, int end) {
+        if (start == end) {
+            throw new DeserializationException("Deserialization exception: empty field id");
+        }
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                throw new DeserializationException("Deserialization exception: invalid field id "
+                        + Utf8.decode(buffer, start, end - start));
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    public String keyToString(int start, int end) {
+        return Utf8.decode(buffer, start, end - start);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.artemdvn.core;
+
+import static com.github.artemdvn.core.Separators.KEY_VALUE_CHAR;
+
+//Text message under construction. The codecs describe the structure, begin/end of objects, collections
+//and maps, and the implementation of the format decides how it is delimited
+public abstract class TextOutput {
+
+    protected final StringBuilder builder;
+
+    protected TextOutput(StringBuilder builder) {
+        this.builder = builder;
+    }
+
+    public CharSequence chars() {
+        return builder;
+    }
+
+    public int length() {
+        return builder.length();
+    }
+
+    public void setLength(int length) {
+        builder.setLength(length);
+    }
+
+    public void reset() {
+        builder.setLength(0);
+    }
+
+    //key of a scalar field
+    public TextOutput key(String key) {
+        builder.append(key).append(KEY_VALUE_CHAR);
+        return this;
+    }
+
+    public TextOutput append(boolean value) {
+        builder.append(value);
+        return this;
+    }
+
+    public TextOutput append(int value) {
+        builder.append(value);
+        return this;
+    }
+
+    public TextOutput append(long value) {
+        builder.append(value);
+        return this;
+    }
+
+    public TextOutput append(float value) {
+        builder.append(value);
+        return this;
+    }
+
+    public TextOutput append(double value) {
+        builder.append(value);
+        return this;
+    }
+
+    public void keyValueSeparator() {
+        builder.append(KEY_VALUE_CHAR);
+    }
+
+    public abstract void append(char value);
+
+    public abstract void writeString(String value);
+
+    //boxed primitive
+    public void writeScalar(Object value) {
+        if (value instanceof Character) {
+            append(((Character) value).charValue());
+        } else {
+            builder.append(value);
+        }
+    }
+
+    public abstract void writeNull();
+
+    public abstract void objectKey(String key);
+
+    public abstract void collectionKey(String key);
+
+    public abstract void mapKey(String key);
+
+    public abstract void beginObject();
+
+    public abstract void fieldSeparator();
+
+    public abstract void endObject();
+
+    public abstract void beginCollection();
+
+    //called before every element, first is set for the first one
+    public abstract void beginElement(boolean first);
+
+    public abstract void endCollection();
+
+    public abstract void beginMap();
+
+    public abstract void entrySeparator();
+
+    public abstract void endMap();
+}
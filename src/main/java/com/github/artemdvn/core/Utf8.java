@@ -0,0 +1,148 @@
+package com.github.artemdvn.core;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+//UTF-8 straight between chars and byte arrays, without intermediate arrays or a platform charset.
+//Unpaired surrogates are written as '?', the same as String.getBytes does
+final class Utf8 {
+
+    private Utf8() {
+    }
+
+    static int length(CharSequence chars) {
+        int length = chars.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (isPair(chars, i)) {
+                bytes += 2;
+                i++;
+            }
+        }
+        return bytes;
+    }
+
+    //the target must have room for 3 bytes per char, returns the position after the last byte written
+    static int encode(CharSequence chars, byte[] target, int position) {
+        int length = chars.length();
+        int i = 0;
+        for (; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            target[position++] = (byte) c;
+        }
+        for (; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                target[position++] = (byte) c;
+            } else if (c < 0x800) {
+                target[position++] = (byte) (0xC0 | c >> 6);
+                target[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                target[position++] = (byte) (0xE0 | c >> 12);
+                target[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (isPair(chars, i)) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                target[position++] = (byte) (0xF0 | codePoint >> 18);
+                target[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                target[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                target[position++] = '?';
+            }
+        }
+        return position;
+    }
+
+    //straight into the buffer, for direct ones and those without room for 3 bytes per char; each code point
+    //is checked against the room left, so overflow surfaces as BufferOverflowException like any other put
+    static void encode(CharSequence chars, ByteOutput target) {
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                target.writeByte(c);
+            } else if (c < 0x800) {
+                target.writeByte(0xC0 | c >> 6);
+                target.writeByte(0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                target.writeByte(0xE0 | c >> 12);
+                target.writeByte(0x80 | c >> 6 & 0x3F);
+                target.writeByte(0x80 | c & 0x3F);
+            } else if (isPair(chars, i)) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                target.writeByte(0xF0 | codePoint >> 18);
+                target.writeByte(0x80 | codePoint >> 12 & 0x3F);
+                target.writeByte(0x80 | codePoint >> 6 & 0x3F);
+                target.writeByte(0x80 | codePoint & 0x3F);
+            } else {
+                target.writeByte('?');
+            }
+        }
+    }
+
+    static void encode(CharSequence chars, ByteBuffer target) {
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                require(target, 1);
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                require(target, 2);
+                target.put((byte) (0xC0 | c >> 6));
+                target.put((byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                require(target, 3);
+                target.put((byte) (0xE0 | c >> 12));
+                target.put((byte) (0x80 | c >> 6 & 0x3F));
+                target.put((byte) (0x80 | c & 0x3F));
+            } else if (isPair(chars, i)) {
+                require(target, 4);
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                target.put((byte) (0xF0 | codePoint >> 18));
+                target.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                target.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                target.put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                require(target, 1);
+                target.put((byte) '?');
+            }
+        }
+    }
+
+    //pure ASCII, the common case for field values, skips the charset decoder
+    @SuppressWarnings("deprecation")
+    static String decode(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] < 0) {
+                return new String(bytes, offset, length, StandardCharsets.UTF_8);
+            }
+        }
+        return new String(bytes, 0, offset, length);
+    }
+
+    private static void require(ByteBuffer target, int length) {
+        if (target.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    private static boolean isPair(CharSequence chars, int index) {
+        return Character.isHighSurrogate(chars.charAt(index)) && index + 1 < chars.length()
+                && Character.isLowSurrogate(chars.charAt(index + 1));
+    }
+}
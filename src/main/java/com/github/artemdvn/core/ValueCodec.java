@@ -0,0 +1,214 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.util.ClassUtils;
+
+public abstract class ValueCodec {
+
+    public static ValueCodec forType(Class<?> type, CodecRegistry registry) {
+        if (ClassUtils.isPrimitive(type) || ClassUtils.isWrapper(type)) {
+            return new ScalarValueCodec(ScalarType.forType(type));
+        } else if (ClassUtils.isString(type)) {
+            return new StringValueCodec();
+        } else if (ClassUtils.isEnum(type)) {
+            return new EnumValueCodec(type, registry.getOptions().getEnumEncoding());
+        }
+        return new ObjectValueCodec(type, registry);
+    }
+
+    public void write(Object value, TextOutput out) throws ReflectiveOperationException {
+        if (value == null) {
+            out.writeNull();
+        } else {
+            writeValue(value, out);
+        }
+    }
+
+    public Object read(TextInput in) throws ReflectiveOperationException {
+        if (in.skipNull()) {
+            return null;
+        }
+        return readValue(in);
+    }
+
+    //binary values carry their own null marker
+    public abstract void writeBinary(Object value, ByteOutput out) throws ReflectiveOperationException;
+
+    public abstract Object readBinary(ByteInput in) throws ReflectiveOperationException;
+
+    protected abstract void writeValue(Object value, TextOutput out) throws ReflectiveOperationException;
+
+    protected abstract Object readValue(TextInput in) throws ReflectiveOperationException;
+
+    static class ScalarValueCodec extends ValueCodec {
+
+        private final ScalarType type;
+
+        ScalarValueCodec(ScalarType type) {
+            this.type = type;
+        }
+
+        @Override
+        protected void writeValue(Object value, TextOutput out) {
+            out.writeScalar(value);
+        }
+
+        @Override
+        protected Object readValue(TextInput in) {
+            return type.parse(in.readValue());
+        }
+
+        @Override
+        public void writeBinary(Object value, ByteOutput out) {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                type.writeBinary(out, value);
+            }
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readBoolean() ? type.readBinary(in) : null;
+        }
+    }
+
+    static class StringValueCodec extends ValueCodec {
+
+        @Override
+        protected void writeValue(Object value, TextOutput out) {
+            out.writeString((String) value);
+        }
+
+        @Override
+        protected Object readValue(TextInput in) {
+            return in.readValue();
+        }
+
+        @Override
+        public void writeBinary(Object value, ByteOutput out) {
+            out.writeString((String) value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            return in.readString();
+        }
+    }
+
+    static class EnumValueCodec extends ValueCodec {
+
+        private final EnumConstants constants;
+        private final boolean ordinal;
+
+        EnumValueCodec(Class<?> type, EnumEncoding encoding) {
+            this.constants = EnumConstants.of(type);
+            this.ordinal = encoding == EnumEncoding.ORDINAL;
+        }
+
+        @Override
+        protected void writeValue(Object value, TextOutput out) {
+            if (ordinal) {
+                out.append(((Enum) value).ordinal());
+            } else {
+                out.writeString(((Enum) value).name());
+            }
+        }
+
+        @Override
+        protected Object readValue(TextInput in) {
+            return ordinal ? constants.byOrdinal(in.readInt()) : constants.byName(in.readValue());
+        }
+
+        @Override
+        public void writeBinary(Object value, ByteOutput out) {
+            if (ordinal) {
+                //ordinal + 1, 0 stands for null
+                out.writeVarInt(value == null ? 0 : ((Enum) value).ordinal() + 1);
+            } else {
+                out.writeString(value == null ? null : ((Enum) value).name());
+            }
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) {
+            if (ordinal) {
+                int header = in.readVarInt();
+                return header == 0 ? null : constants.byOrdinal(header - 1);
+            }
+            String name = in.readString();
+            return name == null ? null : constants.byName(name);
+        }
+    }
+
+    static class ObjectValueCodec extends ValueCodec {
+
+        private static final int NULL_OBJECT = 0;
+        private static final int NEW_OBJECT = 1;
+        private static final int FIRST_REFERENCE = 2;
+
+        private final Class<?> type;
+        private final CodecRegistry registry;
+        //resolved on first use so that classes referring to each other can be planned
+        private CodecPlan plan;
+
+        ObjectValueCodec(Class<?> type, CodecRegistry registry) {
+            this.type = type;
+            this.registry = registry;
+        }
+
+        @Override
+        protected void writeValue(Object value, TextOutput out) throws ReflectiveOperationException {
+            plan().write(value, out);
+        }
+
+        @Override
+        protected Object readValue(TextInput in) throws ReflectiveOperationException {
+            CodecPlan plan = plan();
+            Object result = plan.newInstance();
+            plan.read(in, result);
+            return result;
+        }
+
+        //0 for null, 1 for an object written in place, id + 2 for a back-reference
+        @Override
+        public void writeBinary(Object value, ByteOutput out) throws ReflectiveOperationException {
+            if (value == null) {
+                out.writeVarInt(NULL_OBJECT);
+                return;
+            }
+            if (out.isTrackingReferences()) {
+                int reference = out.reference(value);
+                if (reference >= 0) {
+                    out.writeVarInt(reference + FIRST_REFERENCE);
+                    return;
+                }
+            }
+            out.writeVarInt(NEW_OBJECT);
+            out.writeObject(plan(), value);
+        }
+
+        @Override
+        public Object readBinary(ByteInput in) throws ReflectiveOperationException {
+            int header = in.readVarInt();
+            if (header == NULL_OBJECT) {
+                return null;
+            } else if (header >= FIRST_REFERENCE) {
+                return in.reference(header - FIRST_REFERENCE);
+            }
+            CodecPlan plan = plan();
+            Object result = plan.newInstance();
+            if (in.isTrackingReferences()) {
+                //registered before its fields so that cycles resolve to it
+                in.registerReference(result);
+            }
+            plan.readBinary(result, in);
+            return result;
+        }
+
+        private CodecPlan plan() {
+            if (plan == null) {
+                plan = registry.plan(type);
+            }
+            return plan;
+        }
+    }
+}
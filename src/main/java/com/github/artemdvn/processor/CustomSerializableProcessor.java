@@ -0,0 +1,393 @@
+package com.github.artemdvn.processor;
+
+import com.github.artemdvn.annotation.CustomSerializable;
+import com.github.artemdvn.annotation.FieldId;
+import com.github.artemdvn.core.GeneratedCodec;
+import com.github.artemdvn.util.ClassUtils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+//Emits a <Type>_Codec class for every @CustomSerializable class: field metadata with direct getter/setter
+//accessors, and a binary plan whose write, measure and read are straight-line code over those fields. The codecs
+//are listed in META-INF/services, where ClassMetadata looks them up
+@SupportedAnnotationTypes("com.github.artemdvn.annotation.CustomSerializable")
+public class CustomSerializableProcessor extends AbstractProcessor {
+
+    private static final String SERVICES = "META-INF/services/" + GeneratedCodec.class.getName();
+
+    //codecs written in any round, registered once processing is over
+    private final Set<String> codecNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!codecNames.isEmpty()) {
+                writeServices();
+            }
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(CustomSerializable.class)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(element, "@CustomSerializable is only supported on non-private classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                writeCodec(type);
+            } catch (IOException e) {
+                error(type, "Unable to write codec: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void writeCodec(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String codecName = binaryName.replace('$', '_') + GeneratedCodec.SUFFIX;
+        String simpleCodecName = codecName.substring(codecName.lastIndexOf('.') + 1);
+        String typeName = type.getQualifiedName().toString();
+
+        List<VariableElement> fields = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            //the generated code assigns fields like any other class of the package: directly or through the
+            //setter. A final field can only be assigned by a constructor, which the codec never calls with values,
+            //so such types are left to the reflective accessors by dropping the annotation
+            if (field.getModifiers().contains(Modifier.FINAL)) {
+                error(field, "final fields are not supported by generated codecs");
+                return;
+            }
+            FieldId fieldId = field.getAnnotation(FieldId.class);
+            fields.add(field);
+            ids.add(fieldId != null ? fieldId.value() : 0);
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.github.artemdvn.core.ByteInput;\n")
+                .append("import com.github.artemdvn.core.ByteOutput;\n")
+                .append("import com.github.artemdvn.core.CountingByteOutput;\n")
+                .append("import com.github.artemdvn.core.FieldAccessor;\n")
+                .append("import com.github.artemdvn.core.FieldCodec;\n")
+                .append("import com.github.artemdvn.core.FieldMetadata;\n")
+                .append("import com.github.artemdvn.core.GeneratedCodec;\n")
+                .append("import com.github.artemdvn.core.GeneratedPlan;\n\n")
+                .append("//Generated by CustomSerializableProcessor, do not edit\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleCodecName).append(" implements GeneratedCodec {\n\n");
+        //reference fields leave their keys to the FieldCodecs
+        for (int i = 0; i < fields.size(); i++) {
+            if (primitiveKind(fields.get(i).asType().getKind()) != null) {
+                source.append("    private static final byte[] NAME_").append(i).append(" = ")
+                        .append(nameKey(fields.get(i))).append(";\n");
+            }
+        }
+        source.append("\n")
+                .append("    @Override\n")
+                .append("    public Class<?> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public FieldMetadata[] fields() {\n")
+                .append("        return new FieldMetadata[]{\n");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append(fieldMetadata(typeName, fields.get(i), ids.get(i)));
+        }
+        source.append("        };\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public GeneratedPlan plan(FieldCodec[] codecs, boolean fieldIds) {\n")
+                .append("        return new Plan(codecs, fieldIds);\n")
+                .append("    }\n\n")
+                .append(plan(typeName, fields, ids))
+                .append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(codecName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+        codecNames.add(codecName);
+    }
+
+    //keeps the codecs listed by an earlier, incremental compilation of the same output
+    private void writeServices() {
+        Filer filer = processingEnv.getFiler();
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        codecNames.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //nothing registered yet
+        }
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES).openWriter()) {
+            for (String codecName : codecNames) {
+                writer.write(codecName + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to register codecs: " + e.getMessage());
+        }
+    }
+
+    //the plan keeps the reference codecs, primitive fields are written inline with the encodings of the
+    //primitive FieldCodecs
+    private String plan(String typeName, List<VariableElement> fields, List<Integer> ids) {
+        StringBuilder codecs = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder write = new StringBuilder();
+        StringBuilder measure = new StringBuilder();
+        StringBuilder read = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            VariableElement field = fields.get(i);
+            String kind = primitiveKind(field.asType().getKind());
+            String value = read("value", field);
+            String fieldWrite;
+            String fieldRead;
+            if (kind != null) {
+                fieldWrite = "            key(out, " + ids.get(i) + ", NAME_" + i + ");\n"
+                        + "            out." + writerName(kind) + "(" + value + ");\n";
+                fieldRead = write("value", field, readerCall(kind));
+            } else {
+                codecs.append("        private final FieldCodec.ReferenceFieldCodec codec").append(i).append(";\n");
+                assignments.append("            this.codec").append(i).append(" = (FieldCodec.ReferenceFieldCodec) codecs[")
+                        .append(i).append("];\n");
+                fieldWrite = "            codec" + i + ".writeBinaryValue(" + value + ", out);\n";
+                fieldRead = write("value", field, "(" + erasure(field.asType()) + ") codec" + i + ".readBinaryValue(in)");
+            }
+            write.append(fieldWrite);
+            if (!fixedSize(kind)) {
+                measure.append(fieldWrite);
+            }
+            read.append("                case ").append(i).append(":\n")
+                    .append("                    ").append(fieldRead).append("\n")
+                    .append("                    return;\n");
+        }
+        String cast = "            " + typeName + " value = (" + typeName + ") ";
+        return "    private static final class Plan extends GeneratedPlan {\n\n"
+                + "        private final boolean fieldIds;\n"
+                + codecs + "\n"
+                + "        Plan(FieldCodec[] codecs, boolean fieldIds) {\n"
+                + "            this.fieldIds = fieldIds;\n"
+                + assignments
+                + "        }\n\n"
+                + "        @Override\n"
+                + "        public void writeBinary(Object obj, ByteOutput out) throws ReflectiveOperationException {\n"
+                + cast + "obj;\n"
+                + write
+                + "            out.writeVarInt(0);\n"
+                + "        }\n\n"
+                + "        @Override\n"
+                + "        public void measureBinary(Object obj, CountingByteOutput out) throws ReflectiveOperationException {\n"
+                + cast + "obj;\n"
+                + measure
+                + "        }\n\n"
+                + "        @Override\n"
+                + "        public void readField(int index, Object result, ByteInput in) throws ReflectiveOperationException {\n"
+                + cast + "result;\n"
+                + "            switch (index) {\n"
+                + read
+                + "                default:\n"
+                + "            }\n"
+                + "        }\n\n"
+                + "        private void key(ByteOutput out, int id, byte[] name) {\n"
+                + "            if (fieldIds) {\n"
+                + "                out.writeVarInt(id);\n"
+                + "            } else {\n"
+                + "                out.writeBytes(name);\n"
+                + "            }\n"
+                + "        }\n"
+                + "    }\n";
+    }
+
+    private String fieldMetadata(String typeName, VariableElement field, int id) {
+        TypeMirror fieldType = field.asType();
+        String name = field.getSimpleName().toString();
+        String target = "((" + typeName + ") obj)";
+        String read = read(target, field);
+
+        StringBuilder typeArguments = new StringBuilder();
+        if (fieldType.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) fieldType).getTypeArguments()) {
+                if (typeArguments.length() > 0) {
+                    typeArguments.append(", ");
+                }
+                typeArguments.append(argument.getKind() == TypeKind.DECLARED ? erasure(argument) : "java.lang.Object")
+                        .append(".class");
+            }
+        }
+
+        StringBuilder accessor = new StringBuilder();
+        String kind = primitiveKind(fieldType.getKind());
+        String accessorType;
+        if (kind != null) {
+            //the accessor of the kind boxes through the typed pair
+            String primitive = fieldType.toString();
+            accessorType = "FieldAccessor." + kind + "Accessor";
+            accessor.append(method(primitive + " get" + kind + "(Object obj)", "return " + read + ";"))
+                    .append(method("void set" + kind + "(Object obj, " + primitive + " value)", write(target, field, "value")));
+        } else {
+            accessorType = "FieldAccessor";
+            accessor.append(method("Object get(Object obj)", "return " + read + ";"))
+                    .append(method("void set(Object obj, Object value)", write(target, field, "(" + fieldType + ") value")));
+        }
+
+        return "                new FieldMetadata(" + typeName + ".class, \"" + name + "\", " + id + ", " + erasure(fieldType) + ".class,\n"
+                + "                        new Class<?>[]{" + typeArguments + "},\n"
+                + "                        new " + accessorType + "() {\n"
+                + accessor
+                + "                        }),\n";
+    }
+
+    private static String method(String signature, String body) {
+        return "                            @Override\n"
+                + "                            public " + signature + " {\n"
+                + "                                " + body + "\n"
+                + "                            }\n";
+    }
+
+    //non-private fields are reached directly, the others through their JavaBeans getter and setter
+    private static String read(String target, VariableElement field) {
+        return isDirect(field) ? target + "." + field.getSimpleName() : target + "." + getterName(field) + "()";
+    }
+
+    private static String write(String target, VariableElement field, String value) {
+        return isDirect(field) ? target + "." + field.getSimpleName() + " = " + value + ";"
+                : target + "." + setterName(field) + "(" + value + ");";
+    }
+
+    private static boolean isDirect(VariableElement field) {
+        return !field.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    //the binary key of FieldNaming.NAMES: the varint length, then the UTF-8 bytes of the name
+    private static String nameKey(VariableElement field) {
+        byte[] name = field.getSimpleName().toString().getBytes(StandardCharsets.UTF_8);
+        StringBuilder key = new StringBuilder("{");
+        int length = name.length;
+        while ((length & ~0x7F) != 0) {
+            key.append((byte) ((length & 0x7F) | 0x80)).append(", ");
+            length >>>= 7;
+        }
+        key.append(length);
+        for (byte b : name) {
+            key.append(", ").append(b);
+        }
+        return key.append('}').toString();
+    }
+
+    //the encodings of the primitive FieldCodecs, which the generated plan has to match
+    private static String writerName(String kind) {
+        switch (kind) {
+            case "Boolean":
+                return "writeBoolean";
+            case "Byte":
+                return "writeByte";
+            case "Char":
+                return "writeVarInt";
+            case "Long":
+                return "writeSignedVarLong";
+            case "Float":
+                return "writeFloat";
+            case "Double":
+                return "writeDouble";
+            default:
+                return "writeSignedVarInt";
+        }
+    }
+
+    private static String readerCall(String kind) {
+        String call = "in.read" + writerName(kind).substring("write".length()) + "()";
+        if (kind.equals("Char")) {
+            return "(char) " + call;
+        } else if (kind.equals("Short")) {
+            return "(short) " + call;
+        }
+        return call;
+    }
+
+    //primitive fields whose FieldCodec reports a fixedBinarySize, CodecPlan adds those without measuring
+    private static boolean fixedSize(String kind) {
+        return "Boolean".equals(kind) || "Byte".equals(kind) || "Float".equals(kind) || "Double".equals(kind);
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static String getterName(VariableElement field) {
+        return ClassUtils.getterName(field.getSimpleName().toString(), field.asType().getKind() == TypeKind.BOOLEAN);
+    }
+
+    private static String setterName(VariableElement field) {
+        return ClassUtils.setterName(field.getSimpleName().toString(), field.asType().getKind() == TypeKind.BOOLEAN);
+    }
+
+    private static String primitiveKind(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "Boolean";
+            case BYTE:
+                return "Byte";
+            case CHAR:
+                return "Char";
+            case SHORT:
+                return "Short";
+            case INT:
+                return "Int";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            default:
+                return null;
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
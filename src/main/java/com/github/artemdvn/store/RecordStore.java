@@ -0,0 +1,147 @@
+package com.github.artemdvn.store;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.core.BufferByteInput;
+import com.github.artemdvn.core.BufferByteOutput;
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+//Append-only store of serialized records in a directory of segment files. Records are numbered from 0
+//in append order and read back from memory-mapped segments, either by number or in a sequential scan.
+//A segment is rolled over once the next record would take it past the segment size
+public class RecordStore<T> implements Closeable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    //room for the varint length prefix in front of a record
+    private static final int MAX_PREFIX_SIZE = 5;
+
+    private final Path directory;
+    private final Class<T> type;
+    private final CustomSerializer serializer;
+    private final long segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+    private ByteBuffer frameBuffer = ByteBuffer.allocate(1024);
+
+    public RecordStore(Path directory, Class<T> type, CustomSerializer serializer) throws IOException {
+        this(directory, type, serializer, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public RecordStore(Path directory, Class<T> type, CustomSerializer serializer, long segmentSize)
+            throws IOException {
+        if (segmentSize <= MAX_PREFIX_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + (MAX_PREFIX_SIZE + 1)
+                    + " and " + Integer.MAX_VALUE);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.type = type;
+        this.serializer = serializer;
+        this.segmentSize = segmentSize;
+        openSegments();
+    }
+
+    //returns the number of the appended record
+    public synchronized long append(T record) throws IOException {
+        int size = serializer.serializedSize(record);
+        if (size + MAX_PREFIX_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Record of " + size + " bytes does not fit into a segment");
+        }
+        if (frameBuffer.capacity() < size + MAX_PREFIX_SIZE) {
+            frameBuffer = ByteBuffer.allocate(Math.max(size + MAX_PREFIX_SIZE, frameBuffer.capacity() * 2));
+        }
+        frameBuffer.clear();
+        new BufferByteOutput(frameBuffer).writeVarInt(size);
+        serializer.serialize(frameBuffer, record);
+        frameBuffer.flip();
+        if (active.getCount() > 0 && active.getSize() + frameBuffer.remaining() > segmentSize) {
+            active.seal();
+            active = Segment.create(directory, active.getBaseRecordNumber() + active.getCount());
+            segments.add(active);
+        }
+        active.append(frameBuffer);
+        return active.getBaseRecordNumber() + active.getCount() - 1;
+    }
+
+    public synchronized T get(long recordNumber) throws IOException {
+        if (recordNumber < 0 || recordNumber >= size()) {
+            throw new IndexOutOfBoundsException("Record " + recordNumber + " of " + size());
+        }
+        Segment segment = segmentOf(recordNumber);
+        ByteBuffer frame = segment.frame((int) (recordNumber - segment.getBaseRecordNumber()));
+        int length = new BufferByteInput(frame).readVarInt();
+        if (length != frame.remaining()) {
+            throw new DeserializationException("Deserialization exception: record does not match its frame length");
+        }
+        return serializer.deserialize(frame, type);
+    }
+
+    public synchronized long size() {
+        return active.getBaseRecordNumber() + active.getCount();
+    }
+
+    //sequential scan in record order over the records appended so far, decoded straight from the mappings
+    public Stream<T> stream() throws IOException {
+        List<ByteBuffer> frames = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                frames.add(segment.frames());
+            }
+        }
+        return frames.stream().flatMap(segmentFrames -> serializer.stream(segmentFrames, type));
+    }
+
+    //makes appended records and their index durable
+    public synchronized void flush() throws IOException {
+        active.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+    }
+
+    private void openSegments() throws IOException {
+        List<Long> baseRecordNumbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Segment.DATA_SUFFIX)) {
+            for (Path file : files) {
+                baseRecordNumbers.add(Segment.baseRecordNumber(file));
+            }
+        }
+        baseRecordNumbers.sort(null);
+        for (long baseRecordNumber : baseRecordNumbers) {
+            if (active != null) {
+                active.seal();
+            }
+            active = Segment.open(directory, baseRecordNumber);
+            segments.add(active);
+        }
+        if (active == null) {
+            active = Segment.create(directory, 0);
+            segments.add(active);
+        }
+    }
+
+    private Segment segmentOf(long recordNumber) {
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments.get(middle).getBaseRecordNumber() <= recordNumber) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return segments.get(low);
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.artemdvn.store;
+
+import com.github.artemdvn.core.BufferByteInput;
+import com.github.artemdvn.exception.DeserializationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//One file of a record store: records framed as by CustomSerializer.writeAll, plus an index file
+//holding the offset of every record as a little-endian int
+class Segment implements Closeable {
+
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private final long baseRecordNumber;
+    private final Path dataFile;
+    private final Path indexFile;
+    //open while the segment takes appends, closed once it is sealed
+    private FileChannel channel;
+    private int[] offsets = new int[1024];
+    private int count;
+    //offsets already in the index file
+    private int indexedCount;
+    private long size;
+    //covers the file up to its capacity, remapped when records beyond it are read
+    private MappedByteBuffer mapped;
+
+    private Segment(Path directory, long baseRecordNumber) throws IOException {
+        this.baseRecordNumber = baseRecordNumber;
+        this.dataFile = directory.resolve(fileName(baseRecordNumber, DATA_SUFFIX));
+        this.indexFile = directory.resolve(fileName(baseRecordNumber, INDEX_SUFFIX));
+        this.channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.size = channel.size();
+    }
+
+    static Segment create(Path directory, long baseRecordNumber) throws IOException {
+        return new Segment(directory, baseRecordNumber);
+    }
+
+    //loads the index and recovers records appended after it was last written,
+    //a torn record at the end of the file is cut off
+    static Segment open(Path directory, long baseRecordNumber) throws IOException {
+        Segment segment = new Segment(directory, baseRecordNumber);
+        segment.loadIndex();
+        segment.recover();
+        return segment;
+    }
+
+    static long baseRecordNumber(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - DATA_SUFFIX.length()));
+    }
+
+    long getBaseRecordNumber() {
+        return baseRecordNumber;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    void append(ByteBuffer frame) throws IOException {
+        int offset = (int) size;
+        while (frame.hasRemaining()) {
+            size += channel.write(frame, size);
+        }
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count++] = offset;
+    }
+
+    //the frame of a record: its length prefix followed by the record
+    ByteBuffer frame(int index) throws IOException {
+        ByteBuffer frame = frames();
+        frame.limit(index + 1 < count ? offsets[index + 1] : (int) size).position(offsets[index]);
+        return frame;
+    }
+
+    //all frames of the segment as they are now
+    ByteBuffer frames() throws IOException {
+        if (mapped == null || mapped.capacity() < size) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        ByteBuffer frames = mapped.duplicate();
+        frames.limit((int) size);
+        return frames;
+    }
+
+    void flush() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (indexedCount < count) {
+            ByteBuffer entries = ByteBuffer.allocate((count - indexedCount) * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = indexedCount; i < count; i++) {
+                entries.putInt(offsets[i]);
+            }
+            entries.flip();
+            try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long position = (long) indexedCount * Integer.BYTES;
+                while (entries.hasRemaining()) {
+                    position += index.write(entries, position);
+                }
+                index.force(false);
+            }
+            indexedCount = count;
+        }
+        channel.force(false);
+    }
+
+    //no more appends; the mapping stays readable after the channel is closed
+    void seal() throws IOException {
+        flush();
+        frames();
+        channel.close();
+        channel = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            flush();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            //entries past the data file are left from a lost write
+            int entries = (int) (index.size() / Integer.BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate(entries * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (index.read(buffer, buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            offsets = new int[Math.max(1024, entries)];
+            while (buffer.hasRemaining()) {
+                int offset = buffer.getInt();
+                if (offset >= size || (count > 0 && offset <= offsets[count - 1])) {
+                    break;
+                }
+                offsets[count++] = offset;
+            }
+            index.truncate((long) count * Integer.BYTES);
+            indexedCount = count;
+        }
+    }
+
+    private void recover() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        //the last indexed record is checked again, it may itself be torn
+        int position = 0;
+        if (count > 0) {
+            position = offsets[--count];
+            indexedCount = count;
+        }
+        ByteBuffer frames = frames();
+        while (position < size) {
+            frames.position(position);
+            int end = frameEnd(frames);
+            if (end < 0) {
+                break;
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = position;
+            position = end;
+        }
+        if (position < size) {
+            mapped = null;
+            channel.truncate(position);
+            size = position;
+        }
+    }
+
+    //end of the frame at the buffer position, -1 when it is cut off
+    private static int frameEnd(ByteBuffer frames) {
+        try {
+            int length = new BufferByteInput(frames).readVarInt();
+            return length >= 0 && length <= frames.remaining() ? frames.position() + length : -1;
+        } catch (DeserializationException e) {
+            return -1;
+        }
+    }
+
+    private static String fileName(long baseRecordNumber, String suffix) {
+        return String.format("%020d%s", baseRecordNumber, suffix);
+    }
+}
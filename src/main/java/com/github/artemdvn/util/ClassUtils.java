@@ -1,6 +1,9 @@
 package com.github.artemdvn.util;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -8,6 +11,7 @@ import java.util.Set;
 public class ClassUtils {
 
     private static final Set<Class<?>> WRAPPER_TYPES = getWrapperTypes();
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_TO_WRAPPER = getPrimitiveToWrapper();
 
     public static boolean isPrimitive(Class<?> clazz) {
         return clazz.isPrimitive();
@@ -37,6 +41,42 @@ public class ClassUtils {
         return clazz.isEnum();
     }
 
+    public static Class<?> box(Class<?> clazz) {
+        return clazz.isPrimitive() ? PRIMITIVE_TO_WRAPPER.get(clazz) : clazz;
+    }
+
+    public static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return Object.class;
+    }
+
+    //follows the JavaBeans/Lombok naming: isX for primitive booleans, getX otherwise
+    public static String getterName(String fieldName, boolean primitiveBoolean) {
+        if (primitiveBoolean) {
+            return isPrefixed(fieldName) ? fieldName : "is" + capitalize(fieldName);
+        }
+        return "get" + capitalize(fieldName);
+    }
+
+    public static String setterName(String fieldName, boolean primitiveBoolean) {
+        if (primitiveBoolean && isPrefixed(fieldName)) {
+            return "set" + fieldName.substring(2);
+        }
+        return "set" + capitalize(fieldName);
+    }
+
+    private static boolean isPrefixed(String name) {
+        return name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
     private static Set<Class<?>> getWrapperTypes() {
         Set<Class<?>> wrappers = new HashSet<>();
         wrappers.add(Boolean.class);
@@ -51,4 +91,19 @@ public class ClassUtils {
 
         return wrappers;
     }
+
+    private static Map<Class<?>, Class<?>> getPrimitiveToWrapper() {
+        Map<Class<?>, Class<?>> primitives = new HashMap<>();
+        primitives.put(boolean.class, Boolean.class);
+        primitives.put(char.class, Character.class);
+        primitives.put(byte.class, Byte.class);
+        primitives.put(short.class, Short.class);
+        primitives.put(int.class, Integer.class);
+        primitives.put(long.class, Long.class);
+        primitives.put(float.class, Float.class);
+        primitives.put(double.class, Double.class);
+        primitives.put(void.class, Void.class);
+
+        return primitives;
+    }
 }
@@ -4,9 +4,15 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.artemdvn.core.Engine;
+import com.github.artemdvn.core.EnumEncoding;
+import com.github.artemdvn.core.FieldNaming;
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
 import com.github.artemdvn.domain.Car;
 import com.github.artemdvn.domain.CarOption;
 import com.github.artemdvn.domain.CarOuterClass;
+import com.github.artemdvn.domain.Telemetry;
 import org.openjdk.jmh.Main;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -19,6 +25,8 @@ import org.openjdk.jmh.infra.Blackhole;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -27,6 +35,15 @@ import java.util.Set;
 public class BenchmarkTest {
 
     private static CustomSerializer customSerializer = new CustomSerializer();
+    private static CustomSerializer textV2CustomSerializer =
+            new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.TEXT_V2));
+    private static SerializerOptions binaryOptions = SerializerOptions.DEFAULT
+            .withFormat(Format.BINARY)
+            .withFieldNaming(FieldNaming.IDS)
+            .withEnumEncoding(EnumEncoding.ORDINAL);
+    private static CustomSerializer binaryCustomSerializer = new CustomSerializer(binaryOptions);
+    private static CustomSerializer generatedCustomSerializer =
+            new CustomSerializer(binaryOptions.withEngine(Engine.GENERATED));
     private static Kryo kryo = new Kryo();
     private static ObjectMapper objectMapper = new ObjectMapper();
 
@@ -38,6 +55,12 @@ public class BenchmarkTest {
     public static class TestState {
         public Car volvo = setupCar();
         public CarOuterClass.Car protoCar = setupProtoCar();
+        //decode only: the scan for separators dominates on long string values
+        public byte[] longStringText = serialize(customSerializer, setupLongStringCar());
+        public byte[] longStringTextV2 = serialize(textV2CustomSerializer, setupLongStringCar());
+        //no @CustomSerializable, so both engines go through the runtime accessors
+        public Telemetry telemetry = setupTelemetry();
+        public ByteBuffer buffer = ByteBuffer.allocate(4096);
     }
 
     @Benchmark
@@ -55,6 +78,56 @@ public class BenchmarkTest {
         }
     }
 
+    //through a reused heap buffer, so that the field walk is most of what is measured
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCustomSerializerBinaryTelemetry(TestState state, Blackhole blackhole) {
+        state.buffer.clear();
+        binaryCustomSerializer.serialize(state.buffer, state.telemetry);
+        state.buffer.flip();
+        blackhole.consume(binaryCustomSerializer.deserialize(state.buffer, Telemetry.class));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCustomSerializerGeneratedTelemetry(TestState state, Blackhole blackhole) {
+        state.buffer.clear();
+        generatedCustomSerializer.serialize(state.buffer, state.telemetry);
+        state.buffer.flip();
+        blackhole.consume(generatedCustomSerializer.deserialize(state.buffer, Telemetry.class));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCustomSerializerBinary(TestState state, Blackhole blackhole) throws Exception {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+            binaryCustomSerializer.serialize(byteArrayOutputStream, state.volvo);
+
+            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+            Car car = binaryCustomSerializer.deserialize(byteArrayInputStream, Car.class);
+            byteArrayInputStream.close();
+
+            blackhole.consume(car);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCustomSerializerLongStringsDecode(TestState state, Blackhole blackhole) {
+        blackhole.consume(customSerializer.deserialize(ByteBuffer.wrap(state.longStringText), Car.class));
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public void benchmarkCustomSerializerTextV2LongStringsDecode(TestState state, Blackhole blackhole) {
+        blackhole.consume(textV2CustomSerializer.deserialize(ByteBuffer.wrap(state.longStringTextV2), Car.class));
+    }
+
     @Benchmark
     @Fork(value = 1)
     @BenchmarkMode(Mode.Throughput)
@@ -120,6 +193,29 @@ public class BenchmarkTest {
         return volvo;
     }
 
+    private static Car setupLongStringCar() {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 4096) {
+            text.append("Volvo XC60 T8 Recharge, Inscription trim, panoramic roof and Bowers & Wilkins audio. ");
+        }
+        Car volvo = setupCar();
+        volvo.setModel(text.toString());
+        volvo.getOptions().add(new CarOption(text.substring(0, 1024), 3500.0));
+        volvo.getMileage().put(text.substring(0, 512), 1.5);
+        return volvo;
+    }
+
+    private static Telemetry setupTelemetry() {
+        return new Telemetry(true, (byte) 5, 'A', (short) 92, 3500, 127_500L, 41.5f, 118.25, "km/h",
+                Arrays.asList(3400, 3450, 3520, 3610));
+    }
+
+    private static byte[] serialize(CustomSerializer serializer, Car car) {
+        ByteBuffer buffer = ByteBuffer.allocate(serializer.serializedSize(car));
+        serializer.serialize(buffer, car);
+        return buffer.array();
+    }
+
     private static CarOuterClass.Car setupProtoCar() {
         CarOuterClass.CarOption naviPack = CarOuterClass.CarOption.newBuilder()
                 .setOption("Navi pack")
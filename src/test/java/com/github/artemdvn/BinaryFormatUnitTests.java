@@ -0,0 +1,164 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.core.ArrayByteOutput;
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.domain.Driver;
+import com.github.artemdvn.domain.Garage;
+import com.github.artemdvn.exception.DeserializationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class BinaryFormatUnitTests {
+
+    @Test
+    public void testCustomSerializerBinaryFormat() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.getMileage().put(null, 22.2);
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialCar);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialCar, actualCar);
+    }
+
+    @Test
+    public void testCustomSerializerBinaryFormatNestedCollections() throws Exception {
+        Garage initialGarage = new Garage("Main street", Arrays.asList(Fixtures.setupCar(), new Car(), null));
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withInstantiatorStrategy(type -> () -> new Garage(null, null)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialGarage);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Garage actualGarage = customSerializer.deserialize(inputStream, Garage.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialGarage, actualGarage);
+    }
+
+    @Test
+    public void testCustomSerializerSharedReferences() throws Exception {
+        Car sharedCar = Fixtures.setupCar();
+        Garage initialGarage = new Garage("Main street", Arrays.asList(sharedCar, sharedCar));
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withReferenceTracking(true)
+                .withInstantiatorStrategy(type -> () -> new Garage(null, null)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialGarage);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Garage actualGarage = customSerializer.deserialize(inputStream, Garage.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialGarage, actualGarage);
+        Assert.assertSame(actualGarage.getCars().get(0), actualGarage.getCars().get(1));
+    }
+
+    @Test
+    public void testCustomSerializerCyclicReferences() throws Exception {
+        Driver first = new Driver();
+        first.setName("First");
+        first.setCar(Fixtures.setupCar());
+        Driver second = new Driver();
+        second.setName("Second");
+        first.setPartner(second);
+        second.setPartner(first);
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withReferenceTracking(true));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, first);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Driver actual = customSerializer.deserialize(inputStream, Driver.class);
+        inputStream.close();
+
+        Assert.assertEquals("First", actual.getName());
+        Assert.assertEquals(first.getCar(), actual.getCar());
+        Assert.assertEquals("Second", actual.getPartner().getName());
+        Assert.assertSame(actual, actual.getPartner().getPartner());
+    }
+
+    @Test
+    public void testCustomSerializerStringTable() throws Exception {
+        Car firstCar = Fixtures.setupCar();
+        Car secondCar = Fixtures.setupCar();
+        Garage initialGarage = new Garage("Main street", Arrays.asList(firstCar, secondCar));
+        SerializerOptions binary = SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withInstantiatorStrategy(type -> () -> new Garage(null, null));
+
+        ByteArrayOutputStream plainStream = new ByteArrayOutputStream();
+        new CustomSerializer(binary).serialize(plainStream, initialGarage);
+
+        CustomSerializer customSerializer = new CustomSerializer(binary.withStringTable(true));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialGarage);
+        outputStream.close();
+
+        Assert.assertTrue(outputStream.size() < plainStream.size());
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Garage actualGarage = customSerializer.deserialize(inputStream, Garage.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialGarage, actualGarage);
+        Assert.assertSame(actualGarage.getCars().get(0).getModel(), actualGarage.getCars().get(1).getModel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReferenceTrackingRequiresBinaryFormat() {
+        new CustomSerializer(SerializerOptions.DEFAULT.withReferenceTracking(true));
+    }
+
+    @Test
+    public void testMalformedBinaryLengths() {
+        //streams do not know where they end, their lengths are checked against the message size limit
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withMaxMessageSize(1 << 16)
+                .withInstantiatorStrategy(type -> type == Garage.class ? () -> new Garage(null, null) : null));
+        //a list claiming far more elements than the message holds
+        ArrayByteOutput hugeCount = new ArrayByteOutput();
+        hugeCount.writeVarInt(4);
+        hugeCount.writeBytes("cars".getBytes(StandardCharsets.UTF_8));
+        hugeCount.writeVarInt(0x0FFFFFFF);
+        //a string header that decodes to a negative length
+        ArrayByteOutput negativeLength = new ArrayByteOutput();
+        negativeLength.writeVarInt(7);
+        negativeLength.writeBytes("address".getBytes(StandardCharsets.UTF_8));
+        negativeLength.writeVarInt(-1);
+
+        for (ArrayByteOutput message : Arrays.asList(hugeCount, negativeLength)) {
+            try {
+                customSerializer.deserialize(ByteBuffer.wrap(message.toByteArray()), Garage.class);
+                Assert.fail();
+            } catch (DeserializationException e) {
+                Assert.assertTrue(e.getMessage().contains("invalid length"));
+            }
+            try {
+                customSerializer.deserialize(new ByteArrayInputStream(message.toByteArray()), Garage.class);
+                Assert.fail();
+            } catch (DeserializationException e) {
+                Assert.assertTrue(e.getMessage().contains("invalid length"));
+            }
+        }
+    }
+}
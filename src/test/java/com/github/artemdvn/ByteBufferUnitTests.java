@@ -0,0 +1,63 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.exception.SerializationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ByteBufferUnitTests {
+
+    @Test
+    public void testCustomSerializerByteBuffer() {
+        Car firstCar = Fixtures.setupCar();
+        Car secondCar = new Car();
+        secondCar.setModel("Second");
+        secondCar.setPower(-1);
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024))) {
+            int firstSize = customSerializer.serialize(buffer, firstCar);
+            int secondSize = customSerializer.serialize(buffer, secondCar);
+            Assert.assertEquals(firstSize + secondSize, buffer.position());
+
+            buffer.flip();
+            Assert.assertEquals(firstCar, customSerializer.deserialize(buffer, Car.class));
+            Assert.assertEquals(firstSize, buffer.position());
+            Assert.assertEquals(secondCar, customSerializer.deserialize(buffer, Car.class));
+            Assert.assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testCustomSerializerDirectBufferUtf8() {
+        Car initialCar = Fixtures.setupCar();
+        //two, three and four byte sequences and an unpaired surrogate, written as '?'
+        initialCar.setModel("Volvo \u00df \u20ac \ud83d\ude97 \ud83d");
+        Car expectedCar = Fixtures.setupCar();
+        expectedCar.setModel("Volvo \u00df \u20ac \ud83d\ude97 ?");
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        int size = customSerializer.serializedSize(initialCar);
+        ByteBuffer heap = ByteBuffer.allocate(size * 4);
+        customSerializer.serialize(heap, initialCar);
+        heap.flip();
+        //exactly sized, so that not even the heap buffer has room for 3 bytes per char
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocateDirect(size), ByteBuffer.allocate(size))) {
+            Assert.assertEquals(size, customSerializer.serialize(buffer, initialCar));
+            buffer.flip();
+            Assert.assertEquals(heap, buffer);
+            Assert.assertEquals(expectedCar, customSerializer.deserialize(buffer, Car.class));
+        }
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testCustomSerializerByteBufferOverflow() {
+        new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY))
+                .serialize(ByteBuffer.allocate(4), Fixtures.setupCar());
+    }
+}
@@ -1,22 +1,33 @@
 package com.github.artemdvn;
 
+import com.github.artemdvn.core.EnumEncoding;
+import com.github.artemdvn.core.FieldNaming;
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
 import com.github.artemdvn.domain.Car;
 import com.github.artemdvn.domain.CarOption;
+import com.github.artemdvn.domain.Driver;
+import com.github.artemdvn.domain.Garage;
+import com.github.artemdvn.exception.DeserializationException;
+import com.github.artemdvn.exception.SerializationException;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.FutureTask;
 
 public class CustomSerializerUnitTests {
 
     @Test
     public void testCustomSerializer() throws Exception {
-        Car initialCar = setupCar();
+        Car initialCar = Fixtures.setupCar();
 
         CustomSerializer customSerializer = new CustomSerializer();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -117,6 +128,26 @@ public class CustomSerializerUnitTests {
         Assert.assertEquals(Car.EngineType.HYBRID, actualCar.getEngineType());
     }
 
+    @Test
+    public void testCustomSerializerEnumOrdinal() throws Exception {
+        Car initialCar = new Car();
+        initialCar.setEngineType(Car.EngineType.HYBRID);
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT
+                .withEnumEncoding(EnumEncoding.ORDINAL));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialCar);
+        outputStream.close();
+
+        Assert.assertFalse(outputStream.toString().contains("HYBRID"));
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+        inputStream.close();
+
+        Assert.assertEquals(Car.EngineType.HYBRID, actualCar.getEngineType());
+    }
+
     @Test
     public void testCustomSerializerSetOfNonPrimitives() throws Exception {
         CarOption naviPack = new CarOption("Navi pack", 1200.50);
@@ -172,27 +203,174 @@ public class CustomSerializerUnitTests {
         Assert.assertTrue(actualCar.getMileage().containsValue(22.2));
     }
 
-    private static Car setupCar() {
-        CarOption naviPack = new CarOption("Navi pack", 1200.50);
-        CarOption safetyPack = new CarOption("Safety pack", 755.25);
-        Set<CarOption> options = new HashSet<>();
-        options.add(naviPack);
-        options.add(safetyPack);
+    @Test
+    public void testCustomSerializerWholeObject() throws Exception {
+        Car initialCar = Fixtures.setupCar();
 
-        Map<String, Double> mileage = new HashMap<>();
-        mileage.put("2017", 133.5);
-        mileage.put("2018", 4113.5);
-        mileage.put("2019", 727.8);
+        CustomSerializer customSerializer = new CustomSerializer();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialCar);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialCar, actualCar);
+    }
 
-        Car volvo = new Car();
-        volvo.setModel("Volvo XC60");
-        volvo.setPower(190);
-        volvo.setEngineType(Car.EngineType.DIESEL);
-        volvo.setUsed(true);
-        volvo.setOptions(options);
-        volvo.setMileage(mileage);
+    @Test
+    public void testCustomSerializerInstantiatorStrategy() throws Exception {
+        Car car = new Car();
+        car.setModel("Volvo XC60");
+        car.setEngineType(Car.EngineType.DIESEL);
+        Garage initialGarage = new Garage("Main street", Collections.singletonList(car));
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT
+                .withInstantiatorStrategy(type -> type == Garage.class ? () -> new Garage(null, null) : null));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialGarage);
+        outputStream.close();
 
-        return volvo;
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Garage actualGarage = customSerializer.deserialize(inputStream, Garage.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialGarage, actualGarage);
     }
 
+    @Test(expected = DeserializationException.class)
+    public void testCustomSerializerNoInstantiator() throws Exception {
+        CustomSerializer customSerializer = new CustomSerializer();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, new Garage("Main street", null));
+        outputStream.close();
+
+        customSerializer.deserialize(new ByteArrayInputStream(outputStream.toByteArray()), Garage.class);
+    }
+
+    @Test
+    public void testCustomSerializerUtf8() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.setModel("Škoda é中 🚗");
+        initialCar.getMileage().put("über", 1.5);
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.serialize(outputStream, initialCar);
+            outputStream.close();
+
+            Assert.assertTrue(outputStream.toString("UTF-8").contains(initialCar.getModel()));
+
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+            Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+            inputStream.close();
+
+            Assert.assertEquals(initialCar, actualCar);
+        }
+    }
+
+    @Test
+    public void testCustomSerializerReusesBuffersBetweenMessages() throws Exception {
+        Car bigCar = Fixtures.setupCar();
+        Car smallCar = new Car();
+        smallCar.setModel("Small");
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format));
+            ByteArrayOutputStream bigStream = new ByteArrayOutputStream();
+            customSerializer.serialize(bigStream, bigCar);
+            ByteArrayOutputStream smallStream = new ByteArrayOutputStream();
+            customSerializer.serialize(smallStream, smallCar);
+
+            Assert.assertTrue(smallStream.size() < bigStream.size());
+            Assert.assertEquals(smallCar, customSerializer.deserialize(
+                    new ByteArrayInputStream(smallStream.toByteArray()), Car.class));
+            Assert.assertEquals(bigCar, customSerializer.deserialize(
+                    new ByteArrayInputStream(bigStream.toByteArray()), Car.class));
+        }
+    }
+
+    @Test
+    public void testSerializedSizeMatchesOutput() {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.setModel("Škoda 🚗");
+        SerializerOptions binary = SerializerOptions.DEFAULT.withFormat(Format.BINARY);
+
+        for (SerializerOptions options : Arrays.asList(SerializerOptions.DEFAULT, binary,
+                binary.withFieldNaming(FieldNaming.IDS).withEnumEncoding(EnumEncoding.ORDINAL),
+                binary.withReferenceTracking(true).withStringTable(true))) {
+            CustomSerializer customSerializer = new CustomSerializer(options);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.serialize(outputStream, initialCar);
+
+            Assert.assertEquals(outputStream.size(), customSerializer.serializedSize(initialCar));
+        }
+    }
+
+    @Test
+    public void testMaxMessageSize() {
+        Car initialCar = Fixtures.setupCar();
+        for (Format format : Format.values()) {
+            SerializerOptions options = SerializerOptions.DEFAULT.withFormat(format);
+            int size = new CustomSerializer(options).serializedSize(initialCar);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            new CustomSerializer(options.withMaxMessageSize(size)).serialize(outputStream, initialCar);
+            Assert.assertEquals(size, outputStream.size());
+
+            try {
+                new CustomSerializer(options.withMaxMessageSize(size - 1)).serialize(new ByteArrayOutputStream(), initialCar);
+                Assert.fail();
+            } catch (SerializationException e) {
+                Assert.assertTrue(e.getMessage().contains("exceeds the limit"));
+            }
+        }
+    }
+
+    @Test
+    public void testCustomSerializerDeepGraph() throws Exception {
+        //the codecs recurse once per level, the format itself has no limit
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            serializeDeepGraph(2500);
+            return null;
+        });
+        Thread thread = new Thread(null, task, "deep-graph", 256 << 20);
+        thread.start();
+        task.get();
+    }
+
+    private void serializeDeepGraph(int depth) throws Exception {
+        Driver initialDriver = new Driver();
+        initialDriver.setName("driver0");
+        Driver last = initialDriver;
+        for (int i = 1; i < depth; i++) {
+            Driver partner = new Driver();
+            partner.setName("driver" + i);
+            last.setPartner(partner);
+            last = partner;
+        }
+
+        for (Format format : Arrays.asList(Format.TEXT_V2, Format.BINARY)) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.serialize(outputStream, initialDriver);
+            outputStream.close();
+
+            Driver actualDriver = customSerializer.deserialize(new ByteArrayInputStream(outputStream.toByteArray()),
+                    Driver.class);
+            for (int i = 0; i < depth; i++) {
+                Assert.assertEquals("driver" + i, actualDriver.getName());
+                actualDriver = actualDriver.getPartner();
+            }
+            Assert.assertNull(actualDriver);
+        }
+
+        try {
+            new CustomSerializer().serialize(new ByteArrayOutputStream(), initialDriver);
+            Assert.fail("TEXT separators run out before this depth");
+        } catch (SerializationException expected) {
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.annotation.FieldId;
+import com.github.artemdvn.core.FieldNaming;
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class FieldIdsUnitTests {
+
+    private static final SerializerOptions BINARY_IDS =
+            SerializerOptions.DEFAULT.withFormat(Format.BINARY).withFieldNaming(FieldNaming.IDS);
+
+    public static class Reading {
+        @FieldId(1)
+        private String sensor;
+        @FieldId(2)
+        private int value;
+        @FieldId(3)
+        private long timestamp;
+    }
+
+    //the same fields declared in another order, as after a refactoring
+    public static class ReorderedReading {
+        @FieldId(3)
+        private long timestamp;
+        @FieldId(1)
+        private String sensor;
+        @FieldId(2)
+        private int value;
+    }
+
+    public static class UnnumberedReading {
+        @FieldId(1)
+        private String sensor;
+        private int value;
+    }
+
+    @Test
+    public void testCustomSerializerFieldIds() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        SerializerOptions binary = SerializerOptions.DEFAULT.withFormat(Format.BINARY);
+
+        ByteArrayOutputStream namedStream = new ByteArrayOutputStream();
+        new CustomSerializer(binary).serialize(namedStream, initialCar);
+
+        CustomSerializer customSerializer = new CustomSerializer(binary.withFieldNaming(FieldNaming.IDS));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialCar);
+        outputStream.close();
+
+        Assert.assertTrue(outputStream.size() < namedStream.size());
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialCar, actualCar);
+    }
+
+    @Test
+    public void testCustomSerializerTextFieldIds() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.setOptions(null);
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT
+                .withFieldNaming(FieldNaming.IDS));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialCar);
+        outputStream.close();
+
+        Assert.assertFalse(outputStream.toString().contains("model"));
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Car actualCar = customSerializer.deserialize(inputStream, Car.class);
+        inputStream.close();
+
+        Assert.assertEquals(initialCar, actualCar);
+    }
+
+    @Test
+    public void testFieldIdsSurviveReorderedDeclarations() {
+        Reading initial = new Reading();
+        initial.sensor = "oil";
+        initial.value = -40;
+        initial.timestamp = 1L << 42;
+        CustomSerializer customSerializer = new CustomSerializer(BINARY_IDS);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initial);
+        ReorderedReading actual = customSerializer.deserialize(
+                new ByteArrayInputStream(outputStream.toByteArray()), ReorderedReading.class);
+
+        Assert.assertEquals(initial.sensor, actual.sensor);
+        Assert.assertEquals(initial.value, actual.value);
+        Assert.assertEquals(initial.timestamp, actual.timestamp);
+    }
+
+    @Test
+    public void testFieldIdIsRequired() {
+        try {
+            new CustomSerializer(BINARY_IDS).serialize(new ByteArrayOutputStream(), new UnnumberedReading());
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Field " + UnnumberedReading.class.getName()
+                    + ".value has no @FieldId, which FieldNaming.IDS requires", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.domain.CarOption;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//Objects and streams shared by the unit tests of every component
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static Car setupCar() {
+        CarOption naviPack = new CarOption("Navi pack", 1200.50);
+        CarOption safetyPack = new CarOption("Safety pack", 755.25);
+        Set<CarOption> options = new HashSet<>();
+        options.add(naviPack);
+        options.add(safetyPack);
+
+        Map<String, Double> mileage = new HashMap<>();
+        mileage.put("2017", 133.5);
+        mileage.put("2018", 4113.5);
+        mileage.put("2019", 727.8);
+
+        Car volvo = new Car();
+        volvo.setModel("Volvo XC60");
+        volvo.setPower(190);
+        volvo.setEngineType(Car.EngineType.DIESEL);
+        volvo.setUsed(true);
+        volvo.setOptions(options);
+        volvo.setMileage(mileage);
+
+        return volvo;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T roundTrip(CustomSerializer customSerializer, T initial) {
+        ByteBuffer buffer = ByteBuffer.allocate(customSerializer.serializedSize(initial));
+        customSerializer.serialize(buffer, initial);
+        buffer.flip();
+        return (T) customSerializer.deserialize(buffer, initial.getClass());
+    }
+
+    //hands out a few bytes per read and reports nothing available, like a slow socket
+    public static class ChunkedInputStream extends InputStream {
+
+        private final byte[] data;
+        private final int chunkSize;
+        private int position;
+
+        public ChunkedInputStream(byte[] data) {
+            this(data, 3);
+        }
+
+        public ChunkedInputStream(byte[] data, int chunkSize) {
+            this.data = data;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position == data.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, chunkSize), data.length - position);
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+    }
+}
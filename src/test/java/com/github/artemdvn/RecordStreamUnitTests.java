@@ -0,0 +1,111 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RecordStreamUnitTests {
+
+    @Test
+    public void testCustomSerializerFramedRecords() throws Exception {
+        List<Car> initialCars = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Car car = Fixtures.setupCar();
+            car.setModel("Model " + i);
+            car.setPower(i);
+            initialCars.add(car);
+        }
+        initialCars.add(new Car());
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format)
+                    .withMaxMessageSize(1 << 16));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.writeAll(outputStream, initialCars);
+            outputStream.close();
+
+            List<Car> actualCars = new ArrayList<>();
+            Iterator<Car> iterator = customSerializer.readAll(
+                    new Fixtures.ChunkedInputStream(outputStream.toByteArray()), Car.class);
+            while (iterator.hasNext()) {
+                actualCars.add(iterator.next());
+            }
+
+            Assert.assertEquals(initialCars, actualCars);
+        }
+    }
+
+    @Test
+    public void testCustomSerializerParallelBatch() throws Exception {
+        List<Car> initialCars = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Car car = Fixtures.setupCar();
+            car.setModel("Model " + i);
+            car.setPower(i);
+            initialCars.add(car);
+        }
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        ByteArrayOutputStream sequentialStream = new ByteArrayOutputStream();
+        customSerializer.writeAll(sequentialStream, initialCars);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            customSerializer.serializeAll(outputStream, initialCars, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertArrayEquals(sequentialStream.toByteArray(), outputStream.toByteArray());
+
+        List<Car> actualCars = new ArrayList<>();
+        Iterator<Car> iterator = customSerializer.readAll(
+                new ByteArrayInputStream(outputStream.toByteArray()), Car.class);
+        iterator.forEachRemaining(actualCars::add);
+
+        Assert.assertEquals(initialCars, actualCars);
+    }
+
+    @Test
+    public void testCustomSerializerParallelStream() throws Exception {
+        List<Car> initialCars = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Car car = Fixtures.setupCar();
+            car.setModel("Model " + i);
+            car.setPower(i);
+            initialCars.add(car);
+        }
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.writeAll(outputStream, initialCars);
+
+        List<Car> actualCars = customSerializer.stream(outputStream.toByteArray(), Car.class)
+                .parallel()
+                .collect(Collectors.toList());
+        Assert.assertEquals(initialCars, actualCars);
+
+        Path file = Files.createTempFile("cars", ".bin");
+        try {
+            Files.write(file, outputStream.toByteArray());
+            try (Stream<Car> cars = customSerializer.stream(file, Car.class)) {
+                Assert.assertEquals(initialCars.size(), cars.parallel().unordered().filter(car -> car.getPower() >= 0).count());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
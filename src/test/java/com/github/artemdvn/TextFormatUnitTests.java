@@ -0,0 +1,136 @@
+package com.github.artemdvn;
+
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.ScalarType;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.domain.Driver;
+import com.github.artemdvn.domain.Garage;
+import com.github.artemdvn.domain.Telemetry;
+import com.github.artemdvn.exception.DeserializationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class TextFormatUnitTests {
+
+    @Test
+    public void testScalarTypeParsers() {
+        Assert.assertEquals((byte) 7, ScalarType.forType(Byte.class).parse("7"));
+        Assert.assertEquals('x', ScalarType.forType(char.class).parse("x"));
+        Assert.assertEquals(190, ScalarType.forType(Integer.class).parse("190"));
+        Assert.assertEquals(ScalarType.DOUBLE, ScalarType.forType(double.class));
+    }
+
+    @Test
+    public void testMalformedTextCharValues() {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setGrade('Q');
+        CustomSerializer customSerializer = new CustomSerializer();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, telemetry);
+        String text = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+
+        for (String grade : Arrays.asList("", "QQ")) {
+            byte[] malformed = text.replace("grade=Q", "grade=" + grade).getBytes(StandardCharsets.UTF_8);
+            try {
+                customSerializer.deserialize(new ByteArrayInputStream(malformed), Telemetry.class);
+                Assert.fail(grade);
+            } catch (DeserializationException e) {
+                Assert.assertEquals("Deserialization exception: invalid char value \"" + grade + "\"", e.getMessage());
+            }
+        }
+        try {
+            ScalarType.forType(Character.class).parse("");
+            Assert.fail();
+        } catch (DeserializationException expected) {
+        }
+    }
+
+    @Test
+    public void testCustomSerializerTextEdgeValues() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.setModel("a=b");
+        initialCar.setOptions(new HashSet<>());
+        initialCar.getMileage().put("empty", null);
+        Car plainCar = new Car();
+        plainCar.setModel("");
+        plainCar.setPower(Integer.MIN_VALUE);
+        Garage initialGarage = new Garage("x=y", Arrays.asList(plainCar, null, new Car()));
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT
+                .withInstantiatorStrategy(type -> () -> new Garage(null, null)));
+        for (Object initial : Arrays.asList(initialCar, initialGarage)) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.serialize(outputStream, initial);
+            outputStream.close();
+
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+            Object actual = customSerializer.deserialize(inputStream, initial.getClass());
+            inputStream.close();
+
+            Assert.assertEquals(initial, actual);
+        }
+    }
+
+    @Test
+    public void testCustomSerializerTextV2ControlCharacters() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+        initialCar.setModel("a=b\u001e\u001f\u0002c\u001b\u00b3\u00b4");
+        initialCar.getMileage().put("null", null);
+        initialCar.getMileage().put("", 2.0);
+        initialCar.getMileage().put("k=\u0003", 3.0);
+        Car plainCar = new Car();
+        plainCar.setModel("null");
+        plainCar.setOptions(new HashSet<>());
+        Garage initialGarage = new Garage("", Arrays.asList(plainCar, null, new Car()));
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.TEXT_V2)
+                .withInstantiatorStrategy(type -> () -> new Garage(null, null)));
+        for (Object initial : Arrays.asList(initialCar, initialGarage)) {
+            ByteBuffer buffer = ByteBuffer.allocate(customSerializer.serializedSize(initial));
+            customSerializer.serialize(buffer, initial);
+            buffer.flip();
+
+            Assert.assertEquals(initial, customSerializer.deserialize(buffer, initial.getClass()));
+        }
+    }
+
+    @Test
+    public void testCustomSerializerLongTextValues() throws Exception {
+        String text = "Volvo XC60 é中 ß a=b Volvo XC60 Volvo XC60 ";
+        for (Format format : Arrays.asList(Format.TEXT, Format.TEXT_V2)) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format));
+            //every delimiter lands at each offset within an eight byte word
+            for (int length = 0; length <= text.length(); length++) {
+                Car initialCar = Fixtures.setupCar();
+                initialCar.setModel(text.substring(0, length));
+                //TEXT map keys cannot hold '='
+                initialCar.getMileage().put(text.substring(length).replace('=', '-'), 1.0);
+                Assert.assertEquals(initialCar, Fixtures.roundTrip(customSerializer, initialCar));
+            }
+
+            //separators past U+00BF no longer share the lead byte of FIELD_SEPARATOR
+            Driver initialDriver = new Driver();
+            Driver last = initialDriver;
+            for (int i = 0; i < 20; i++) {
+                last.setName(text + i);
+                last.setCar(Fixtures.setupCar());
+                last.setPartner(new Driver());
+                last = last.getPartner();
+            }
+            Driver actualDriver = Fixtures.roundTrip(customSerializer, initialDriver);
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals(text + i, actualDriver.getName());
+                Assert.assertEquals(Fixtures.setupCar(), actualDriver.getCar());
+                actualDriver = actualDriver.getPartner();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.artemdvn.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ByteOutputUnitTests {
+
+    //one, two, three and four byte sequences, and an unpaired surrogate at the end
+    private static final String TEXT = "aé€😀z\ud83d";
+
+    @Test
+    public void testBaseUtf8MatchesTheArrayAndBufferSinks() {
+        StreamOutput stream = new StreamOutput();
+        ArrayByteOutput array = new ArrayByteOutput();
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+
+        stream.writeUtf8(TEXT);
+        array.writeUtf8(TEXT);
+        new BufferByteOutput(buffer).writeUtf8(TEXT);
+
+        Assert.assertArrayEquals("aé€😀z?".getBytes(StandardCharsets.UTF_8), stream.bytes.toByteArray());
+        Assert.assertArrayEquals(stream.bytes.toByteArray(), array.toByteArray());
+        Assert.assertEquals(stream.size(), buffer.position());
+    }
+
+    @Test
+    public void testTablesStartEmptyForEveryMessage() {
+        ArrayByteOutput output = new ArrayByteOutput();
+        Object root = new Object();
+        Object child = new Object();
+        for (int message = 0; message < 3; message++) {
+            output.reset();
+            output.trackStrings();
+            output.trackReferences(root);
+            output.writeString("repeated");
+            output.writeString("repeated");
+
+            Assert.assertTrue(output.isTrackingReferences());
+            Assert.assertEquals(0, output.reference(root));
+            Assert.assertEquals(-1, output.reference(child));
+            Assert.assertEquals(1, output.reference(child));
+            //new string, length 8 and its bytes, then index 0 + 2
+            Assert.assertEquals(11, output.size());
+            Assert.assertEquals(2, output.toByteArray()[10]);
+        }
+
+        output.stopTracking();
+        output.writeString("repeated");
+
+        Assert.assertFalse(output.isTrackingReferences());
+        Assert.assertEquals(9, output.toByteArray()[11]);
+    }
+
+    //takes the base writeUtf8, which no array or buffer backs
+    private static class StreamOutput extends ByteOutput {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public int size() {
+            return bytes.size();
+        }
+
+        @Override
+        public void writeByte(int value) {
+            bytes.write(value);
+        }
+
+        @Override
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            this.bytes.write(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.github.artemdvn.core;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+public class ClassBuilderUnitTests {
+
+    private static final int IADD = 0x60;
+    private static final int IRETURN = 0xAC;
+
+    //descriptors, parameter types and a sample value of each
+    private static final List<Object[]> KINDS = Arrays.asList(
+            new Object[]{"Z", boolean.class, true},
+            new Object[]{"B", byte.class, (byte) -7},
+            new Object[]{"C", char.class, 'Q'},
+            new Object[]{"S", short.class, (short) -1200},
+            new Object[]{"I", int.class, Integer.MIN_VALUE},
+            new Object[]{"J", long.class, Long.MIN_VALUE + 1},
+            new Object[]{"F", float.class, -0.75f},
+            new Object[]{"D", double.class, Double.MAX_VALUE},
+            new Object[]{"Ljava/lang/String;", String.class, "text"},
+            new Object[]{"[I", int[].class, new int[]{1, 2}});
+
+    @Test
+    public void testLoadsAndReturnsEveryDescriptor() throws Exception {
+        for (Object[] kind : KINDS) {
+            String descriptor = (String) kind[0];
+            Class<?> type = (Class<?>) kind[1];
+            char first = descriptor.charAt(0);
+            //returns its second parameter, which sits after one or two slots taken by the first
+            ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "java/lang/Object");
+            ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC | ClassBuilder.ACC_STATIC, "second",
+                    "(" + descriptor + descriptor + ")" + descriptor, 2 * ClassBuilder.slots(first));
+            code.local(ClassBuilder.loadOpcode(first), ClassBuilder.slots(first));
+            code.op(ClassBuilder.returnOpcode(first));
+
+            Method second = define(builder).getMethod("second", type, type);
+
+            Assert.assertEquals(descriptor, kind[2], second.invoke(null, defaultValue(type), kind[2]));
+        }
+    }
+
+    @Test
+    public void testTableswitchFrames() throws Exception {
+        int count = 40;
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "java/lang/Object");
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC | ClassBuilder.ACC_STATIC, "pick", "(I)I", 1);
+        code.local(ClassBuilder.ILOAD, 0);
+        //the first case lies past the whole table, more than 63 bytes in: a same_frame_extended entry
+        int tableswitch = code.tableswitch(count);
+        for (int i = 0; i < count; i++) {
+            code.target(tableswitch, i);
+            code.push(i * 3);
+            code.op(IRETURN);
+        }
+        code.target(tableswitch, -1);
+        code.push(-1);
+        code.op(IRETURN);
+
+        Method pick = define(builder).getMethod("pick", int.class);
+
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(i * 3, pick.invoke(null, i));
+        }
+        Assert.assertEquals(-1, pick.invoke(null, -1));
+        Assert.assertEquals(-1, pick.invoke(null, count));
+    }
+
+    @Test
+    public void testPushesEveryRange() throws Exception {
+        //sipush up to the short range, an integer constant past it
+        int[] values = {0, -1, Short.MAX_VALUE, Short.MIN_VALUE, Short.MAX_VALUE + 1, Short.MIN_VALUE - 1,
+                Integer.MAX_VALUE, Integer.MIN_VALUE, 40000};
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "java/lang/Object");
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC | ClassBuilder.ACC_STATIC, "pick", "(I)I", 1);
+        code.local(ClassBuilder.ILOAD, 0);
+        int tableswitch = code.tableswitch(values.length);
+        for (int i = 0; i < values.length; i++) {
+            code.target(tableswitch, i);
+            code.push(values[i]);
+            code.op(IRETURN);
+        }
+        code.target(tableswitch, -1);
+        code.push(values[0]);
+        code.op(IRETURN);
+
+        Method pick = define(builder).getMethod("pick", int.class);
+
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[i], pick.invoke(null, i));
+        }
+    }
+
+    @Test
+    public void testReadsAndWritesInstanceFields() throws Exception {
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "java/lang/Object");
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC | ClassBuilder.ACC_STATIC, "increment",
+                "(Lcom/github/artemdvn/core/ClassBuilderUnitTests$Counter;)I", 1);
+        String owner = "com/github/artemdvn/core/ClassBuilderUnitTests$Counter";
+        code.local(ClassBuilder.loadOpcode('L'), 0);
+        code.local(ClassBuilder.loadOpcode('L'), 0);
+        code.field(ClassBuilder.GETFIELD, owner, "value", "I");
+        code.push(100000);
+        code.op(IADD);
+        code.field(ClassBuilder.PUTFIELD, owner, "value", "I");
+        code.local(ClassBuilder.loadOpcode('L'), 0);
+        code.field(ClassBuilder.GETFIELD, owner, "value", "I");
+        code.op(IRETURN);
+
+        Counter counter = new Counter();
+        counter.value = 5;
+
+        Assert.assertEquals(100005, define(builder).getMethod("increment", Counter.class).invoke(null, counter));
+        Assert.assertEquals(100005, counter.value);
+    }
+
+    @Test
+    public void testRejectsWideLocalsAndOversizedCode() {
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "java/lang/Object");
+        ClassBuilder.Code code = builder.method(ClassBuilder.ACC_PUBLIC | ClassBuilder.ACC_STATIC, "large", "()V", 0);
+        try {
+            code.local(ClassBuilder.ILOAD, 256);
+            Assert.fail("wide locals are not emitted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        //three bytes per push, past the 64K a method may hold
+        for (int i = 0; i < 0x10000 / 3 + 1; i++) {
+            code.push(i);
+        }
+        try {
+            builder.toByteArray();
+            Assert.fail("the class file cannot hold the method");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testConstantsAreHandedOverOnce() throws Exception {
+        ClassBuilder builder = new ClassBuilder(SpunClasses.name("Test"), "com/github/artemdvn/core/FieldAccessor");
+        builder.constant("VALUE", "java/lang/String");
+        builder.constructor();
+        ClassBuilder.Code get = builder.method(ClassBuilder.ACC_PUBLIC, "get",
+                "(Ljava/lang/Object;)Ljava/lang/Object;", 2);
+        get.field(ClassBuilder.GETSTATIC, builder.getName(), "VALUE", "Ljava/lang/String;");
+        get.op(ClassBuilder.returnOpcode('L'));
+
+        Class<?> spun = SpunClasses.loader(ClassBuilderUnitTests.class).define(builder, new Object[]{"constant"});
+        FieldAccessor accessor = (FieldAccessor) spun.newInstance();
+
+        Assert.assertEquals("constant", accessor.get(null));
+        try {
+            SpunClasses.constant(spun, 0);
+            Assert.fail("constants are dropped once the class is initialized");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            SpunClasses.constant(ClassBuilderUnitTests.class, 0);
+            Assert.fail("only spun classes get constants");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public static class Counter {
+        public int value;
+    }
+
+    private static Class<?> define(ClassBuilder builder) throws ClassNotFoundException {
+        return SpunClasses.loader(ClassBuilderUnitTests.class).define(builder, new Object[0]);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+}
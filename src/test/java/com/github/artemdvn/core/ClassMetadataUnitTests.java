@@ -0,0 +1,62 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.domain.CarOption;
+import com.github.artemdvn.domain.Telemetry;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassMetadataUnitTests {
+
+    @Test
+    public void testClassMetadataIsResolvedOnce() {
+        ClassMetadata metadata = ClassMetadata.of(Car.class);
+
+        Assert.assertSame(metadata, ClassMetadata.of(Car.class));
+        Assert.assertEquals(6, metadata.getFields().length);
+        Assert.assertEquals(CarOption.class, metadata.getField("options").getElementType());
+        Assert.assertEquals(Double.class, metadata.getField("mileage").getValueType());
+    }
+
+    @Test
+    public void testGeneratedCodecIsPreferred() {
+        Assert.assertTrue(ClassMetadata.of(Car.class).isGenerated());
+        Assert.assertTrue(ClassMetadata.of(CarOption.class).isGenerated());
+        Assert.assertFalse(ClassMetadata.of(Car.class).getField("model").isReflective());
+    }
+
+    @Test
+    public void testFieldAccessorPrimitiveField() {
+        CarOption option = new CarOption("Navi pack", 1200.50);
+        FieldAccessor.DoubleAccessor accessor =
+                (FieldAccessor.DoubleAccessor) ClassMetadata.of(CarOption.class).getField("price").getAccessor();
+
+        accessor.setDouble(option, 755.25);
+
+        Assert.assertEquals(755.25, accessor.getDouble(option), 0.0);
+        Assert.assertEquals(755.25, option.getPrice(), 0.0);
+    }
+
+    @Test
+    public void testFieldAccessorSpunForEveryKind() {
+        Telemetry telemetry = new Telemetry();
+        ClassMetadata metadata = ClassMetadata.of(Telemetry.class);
+        FieldAccessor.IntAccessor rpm = (FieldAccessor.IntAccessor) metadata.getField("rpm").getAccessor();
+        FieldAccessor.LongAccessor odometer = (FieldAccessor.LongAccessor) metadata.getField("odometer").getAccessor();
+        FieldAccessor gear = metadata.getField("gear").getAccessor();
+        FieldAccessor unit = metadata.getField("unit").getAccessor();
+
+        rpm.setInt(telemetry, 3500);
+        odometer.setLong(telemetry, 1L << 40);
+        gear.set(telemetry, (byte) 4);
+        unit.set(telemetry, "km/h");
+
+        Assert.assertTrue(metadata.getField("rpm").isReflective());
+        //one loader for all the accessors of a type
+        Assert.assertSame(rpm.getClass().getClassLoader(), unit.getClass().getClassLoader());
+        Assert.assertEquals(3500, rpm.getInt(telemetry));
+        Assert.assertEquals(1L << 40, telemetry.getOdometer());
+        Assert.assertEquals((byte) 4, gear.get(telemetry));
+        Assert.assertEquals("km/h", unit.get(telemetry));
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.Fixtures;
+import com.github.artemdvn.annotation.FieldId;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.domain.Garage;
+import com.github.artemdvn.domain.Telemetry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+public class GeneratedPlanUnitTests {
+
+    private static final SerializerOptions BINARY = SerializerOptions.DEFAULT.withFormat(Format.BINARY);
+
+    //reached directly by the spun class, except for the final field which is only read directly
+    public static class PublicFields {
+        @FieldId(1)
+        public int count;
+        @FieldId(40000)
+        public final long stamp;
+        @FieldId(3)
+        public String name;
+        @FieldId(4)
+        public List<Integer> samples;
+
+        public PublicFields() {
+            this(0);
+        }
+
+        PublicFields(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    //not visible to the spun class, every field goes through its accessor
+    static class HiddenFields {
+        @FieldId(1)
+        private double ratio;
+        @FieldId(2)
+        private String label;
+    }
+
+    @Test
+    public void testCustomSerializerGeneratedEngine() throws Exception {
+        //Garage has no @CustomSerializable, its plan is spun over the runtime accessors
+        Garage initialGarage = new Garage("Main street", Arrays.asList(Fixtures.setupCar(), null, new Car()));
+        SerializerOptions binary = SerializerOptions.DEFAULT.withFormat(Format.BINARY)
+                .withInstantiatorStrategy(type -> type == Garage.class ? () -> new Garage(null, null) : null);
+
+        CustomSerializer customSerializer = new CustomSerializer(binary.withEngine(Engine.GENERATED));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, initialGarage);
+        outputStream.close();
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Garage actualGarage = new CustomSerializer(binary).deserialize(inputStream, Garage.class);
+        inputStream.close();
+
+        Assert.assertFalse(ClassMetadata.of(Garage.class).isGenerated());
+        Assert.assertEquals(initialGarage, actualGarage);
+    }
+
+    @Test
+    public void testGeneratedPlanWritesTheReflectiveBytes() {
+        Telemetry initial = new Telemetry(true, (byte) -3, 'Q', (short) -1200, 3500, 1L << 40, 0.75f, 88.5,
+                null, Arrays.asList(1, null, 3));
+
+        for (FieldNaming naming : FieldNaming.values()) {
+            SerializerOptions binary = SerializerOptions.DEFAULT.withFormat(Format.BINARY).withFieldNaming(naming);
+            CustomSerializer reflective = new CustomSerializer(binary);
+            CustomSerializer generated = new CustomSerializer(binary.withEngine(Engine.GENERATED));
+
+            ByteArrayOutputStream reflectiveStream = new ByteArrayOutputStream();
+            reflective.serialize(reflectiveStream, initial);
+            ByteArrayOutputStream generatedStream = new ByteArrayOutputStream();
+            generated.serialize(generatedStream, initial);
+
+            Assert.assertTrue(new CodecRegistry(binary.withEngine(Engine.GENERATED)).plan(Telemetry.class).isGenerated());
+            Assert.assertArrayEquals(reflectiveStream.toByteArray(), generatedStream.toByteArray());
+            Assert.assertEquals(initial, Fixtures.roundTrip(generated, initial));
+        }
+    }
+
+    @Test
+    public void testGeneratedPlanReachesEveryKindOfField() throws Exception {
+        PublicFields initialPublic = new PublicFields(1L << 50);
+        initialPublic.count = -17;
+        initialPublic.name = "direct";
+        initialPublic.samples = Arrays.asList(4, 5);
+        HiddenFields initialHidden = new HiddenFields();
+        initialHidden.ratio = 0.25;
+        initialHidden.label = "accessor";
+
+        for (FieldNaming naming : FieldNaming.values()) {
+            SerializerOptions binary = BINARY.withFieldNaming(naming);
+            CodecRegistry registry = new CodecRegistry(binary.withEngine(Engine.GENERATED));
+            CustomSerializer generated = new CustomSerializer(binary.withEngine(Engine.GENERATED));
+            CustomSerializer reflective = new CustomSerializer(binary);
+
+            Assert.assertTrue(registry.plan(PublicFields.class).isGenerated());
+            Assert.assertTrue(registry.plan(HiddenFields.class).isGenerated());
+            Assert.assertArrayEquals(serialize(reflective, initialPublic), serialize(generated, initialPublic));
+            Assert.assertArrayEquals(serialize(reflective, initialHidden), serialize(generated, initialHidden));
+
+            PublicFields actualPublic = Fixtures.roundTrip(generated, initialPublic);
+            Assert.assertEquals(initialPublic.count, actualPublic.count);
+            Assert.assertEquals(initialPublic.stamp, actualPublic.stamp);
+            Assert.assertEquals(initialPublic.name, actualPublic.name);
+            Assert.assertEquals(initialPublic.samples, actualPublic.samples);
+            HiddenFields actualHidden = Fixtures.roundTrip(generated, initialHidden);
+            Assert.assertEquals(initialHidden.ratio, actualHidden.ratio, 0);
+            Assert.assertEquals(initialHidden.label, actualHidden.label);
+        }
+    }
+
+    @Test
+    public void testBuildTimePlanWritesTheReflectiveBytes() {
+        Car initial = Fixtures.setupCar();
+        GeneratedPlan buildTime = ClassMetadata.of(Car.class).generatedPlan(new FieldCodec[6], false);
+
+        Assert.assertNotNull(buildTime);
+        Assert.assertFalse(buildTime.getClass().getClassLoader() instanceof SpunClasses.Loader);
+        for (FieldNaming naming : FieldNaming.values()) {
+            SerializerOptions binary = BINARY.withFieldNaming(naming);
+            CustomSerializer reflective = new CustomSerializer(binary);
+            CustomSerializer generated = new CustomSerializer(binary.withEngine(Engine.GENERATED));
+
+            Assert.assertTrue(new CodecRegistry(binary.withEngine(Engine.GENERATED)).plan(Car.class).isGenerated());
+            Assert.assertArrayEquals(serialize(reflective, initial), serialize(generated, initial));
+            Assert.assertEquals(initial, Fixtures.roundTrip(generated, initial));
+        }
+    }
+
+    @Test
+    public void testGeneratedPlanFallsBackWhenTheClassIsRejected() throws Exception {
+        Telemetry initial = new Telemetry(false, (byte) 9, 'x', (short) 7, -1, 12L, 1.5f, -2.5, "rpm", null);
+        CodecRegistry rejecting = new CodecRegistry(BINARY.withEngine(Engine.GENERATED)) {
+            @Override
+            GeneratedPlan generatedPlan(ClassMetadata metadata, FieldCodec[] codecs) {
+                throw new VerifyError("rejected by the verifier");
+            }
+        };
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new Serializer(rejecting).serialize(outputStream, initial);
+        Telemetry actual = new Deserializer(rejecting)
+                .deserialize(new ByteArrayInputStream(outputStream.toByteArray()), Telemetry.class);
+
+        Assert.assertFalse(rejecting.plan(Telemetry.class).isGenerated());
+        Assert.assertArrayEquals(serialize(new CustomSerializer(BINARY), initial), outputStream.toByteArray());
+        Assert.assertEquals(initial, actual);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeneratedEngineRequiresBinary() {
+        new CustomSerializer(SerializerOptions.DEFAULT.withEngine(Engine.GENERATED));
+    }
+
+    private static byte[] serialize(CustomSerializer customSerializer, Object obj) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, obj);
+        return outputStream.toByteArray();
+    }
+}
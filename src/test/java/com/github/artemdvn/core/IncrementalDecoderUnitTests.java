@@ -0,0 +1,107 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.Fixtures;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.exception.DeserializationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class IncrementalDecoderUnitTests {
+
+    @Test
+    public void testIncrementalDecoder() {
+        List<Car> initialCars = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Car car = Fixtures.setupCar();
+            car.setModel("Model " + i);
+            initialCars.add(car);
+        }
+        initialCars.add(new Car());
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format)
+                    .withMaxMessageSize(1 << 16));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.writeAll(outputStream, initialCars);
+            byte[] data = outputStream.toByteArray();
+
+            //chunks of varying size, split anywhere in length prefixes and records
+            List<Car> actualCars = new ArrayList<>();
+            IncrementalDecoder<Car> decoder = customSerializer.newDecoder(Car.class);
+            for (int from = 0, chunk = 1; from < data.length; from += chunk, chunk = chunk % 97 + 1) {
+                decoder.feed(ByteBuffer.wrap(data, from, Math.min(chunk, data.length - from)), actualCars::add);
+            }
+
+            Assert.assertFalse(decoder.hasPartialRecord());
+            Assert.assertEquals(initialCars, actualCars);
+        }
+    }
+
+    @Test
+    public void testEverySplitPoint() {
+        //a record past 128 bytes has a two byte length prefix and past 256 grows the pending buffer
+        Car large = Fixtures.setupCar();
+        large.setModel(String.join("", Collections.nCopies(40, "Volvo XC60 ")));
+        List<Car> initialCars = Arrays.asList(Fixtures.setupCar(), large, new Car());
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format)
+                    .withMaxMessageSize(1 << 16));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.writeAll(outputStream, initialCars);
+            byte[] data = outputStream.toByteArray();
+
+            IncrementalDecoder<Car> decoder = customSerializer.newDecoder(Car.class);
+            for (int split = 0; split < data.length; split++) {
+                //two chunks, then three with a single byte at the split in the middle
+                List<Car> actualCars = new ArrayList<>();
+                decoder.feed(ByteBuffer.wrap(data, 0, split), actualCars::add);
+                decoder.feed(ByteBuffer.wrap(data, split, data.length - split), actualCars::add);
+                Assert.assertEquals(format + " split at " + split, initialCars, actualCars);
+
+                actualCars.clear();
+                decoder.feed(ByteBuffer.wrap(data, 0, split), actualCars::add);
+                decoder.feed(ByteBuffer.wrap(data, split, 1), actualCars::add);
+                decoder.feed(ByteBuffer.wrap(data, split + 1, data.length - split - 1), actualCars::add);
+                Assert.assertEquals(format + " byte at " + split, initialCars, actualCars);
+                Assert.assertFalse(decoder.hasPartialRecord());
+            }
+        }
+    }
+
+    @Test
+    public void testStartsOverAfterBrokenRecord() {
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withMaxMessageSize(64));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.writeAll(outputStream, Collections.singletonList(new Car()));
+        byte[] data = outputStream.toByteArray();
+        IncrementalDecoder<Car> decoder = customSerializer.newDecoder(Car.class);
+        List<Car> actualCars = new ArrayList<>();
+
+        //half of a length prefix claiming more than maxMessageSize, then the rest of it
+        decoder.feed(ByteBuffer.wrap(new byte[]{(byte) 0x80}), actualCars::add);
+        Assert.assertTrue(decoder.hasPartialRecord());
+        try {
+            decoder.feed(ByteBuffer.wrap(new byte[]{0x01}), actualCars::add);
+            Assert.fail("length 128 is over the limit");
+        } catch (DeserializationException expected) {
+        }
+
+        Assert.assertFalse(decoder.hasPartialRecord());
+        decoder.feed(ByteBuffer.wrap(data), actualCars::add);
+        Assert.assertEquals(Collections.singletonList(new Car()), actualCars);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncrementalDecoderRequiresMaxMessageSize() {
+        new CustomSerializer().newDecoder(Car.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.artemdvn.core;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+
+//The value scan of the text formats on its own: a byte at a time as before Swar, then eight bytes at a time
+public class ScanBenchmarkTest {
+
+    private static final long KEY_VALUE_BYTES = Swar.pattern('=');
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @State(Scope.Thread)
+    public static class ScanState {
+        //a long value ended by a separator, as in the long string decode benchmarks
+        public byte[] value = setupValue();
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkScanBytewise(ScanState state) {
+        byte[] buffer = state.value;
+        int end = 0;
+        while (end < buffer.length) {
+            byte b = buffer[end];
+            if ((b >= 0 && b < 0x20) || b == '=') {
+                return end;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    @Benchmark
+    @Fork(value = 1)
+    @BenchmarkMode(Mode.Throughput)
+    public int benchmarkScanSwar(ScanState state) {
+        byte[] buffer = state.value;
+        int end = 0;
+        while (end <= buffer.length - Swar.WORD_BYTES) {
+            long word = Swar.readWord(buffer, end);
+            long flags = Swar.lessThan(word, 0x20) | Swar.equalTo(word, KEY_VALUE_BYTES);
+            if (flags != 0) {
+                return end + Swar.firstIndex(flags);
+            }
+            end += Swar.WORD_BYTES;
+        }
+        while (end < buffer.length) {
+            byte b = buffer[end];
+            if ((b >= 0 && b < 0x20) || b == '=') {
+                return end;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private static byte[] setupValue() {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 4096) {
+            text.append("Volvo XC60 T8 Recharge, Inscription trim, panoramic roof and Bowers & Wilkins audio. ");
+        }
+        text.append('\u001F');
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.Fixtures;
+import com.github.artemdvn.domain.Car;
+import com.github.artemdvn.exception.DeserializationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class StreamByteInputUnitTests {
+
+    @Test
+    public void testCustomSerializerChunkedStream() throws Exception {
+        Car initialCar = Fixtures.setupCar();
+
+        for (Format format : Format.values()) {
+            CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(format));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            customSerializer.serialize(outputStream, initialCar);
+
+            Car actualCar = customSerializer.deserialize(new Fixtures.ChunkedInputStream(outputStream.toByteArray()), Car.class);
+
+            Assert.assertEquals(initialCar, actualCar);
+        }
+    }
+
+    @Test
+    public void testCustomSerializerBinaryMessagesShareStream() throws Exception {
+        Car firstCar = Fixtures.setupCar();
+        Car secondCar = new Car();
+        secondCar.setModel("Second");
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, firstCar);
+        customSerializer.serialize(outputStream, secondCar);
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        Assert.assertEquals(firstCar, customSerializer.deserialize(inputStream, Car.class));
+        Assert.assertEquals(secondCar, customSerializer.deserialize(inputStream, Car.class));
+        Assert.assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void testCustomSerializerBinaryMessagesShareNonMarkStream() {
+        Car firstCar = Fixtures.setupCar();
+        Car secondCar = new Car();
+        secondCar.setModel("Second");
+
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        customSerializer.serialize(outputStream, firstCar);
+        customSerializer.serialize(outputStream, secondCar);
+
+        //no mark support, nothing past the first message may be read while decoding it
+        Fixtures.ChunkedInputStream inputStream = new Fixtures.ChunkedInputStream(outputStream.toByteArray(), 64);
+        Assert.assertFalse(inputStream.markSupported());
+        Assert.assertEquals(firstCar, customSerializer.deserialize(inputStream, Car.class));
+        Assert.assertEquals(secondCar, customSerializer.deserialize(inputStream, Car.class));
+        Assert.assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void testReadsAcrossBufferRefills() {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+        //a 16 byte buffer fed 3 bytes at a time: reads within it, across its end, of its size and past it
+        StreamByteInput input = new StreamByteInput(new Fixtures.ChunkedInputStream(data), 16);
+
+        Assert.assertEquals(data[0], input.readByte());
+        Assert.assertEquals(0x65646362, input.readIntLE());
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 5, 21), input.readBytes(16));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 21, 61), input.readBytes(40));
+        Assert.assertEquals(new String(data, 61, 30, StandardCharsets.UTF_8), input.readUtf8(30));
+        Assert.assertEquals(new String(data, 91, 9, StandardCharsets.UTF_8), input.readUtf8(9));
+        Assert.assertEquals(100, input.consumed());
+        Assert.assertTrue(input.isAtEnd());
+    }
+
+    @Test
+    public void testClaimedLengthIsNotAllocatedUpFront() {
+        //no message size limit: only the bytes that arrive are held, the claimed length fails at the end of input
+        for (int attempt = 0; attempt < 2; attempt++) {
+            StreamByteInput input = new StreamByteInput(new ByteArrayInputStream(new byte[1000]), 64);
+            try {
+                if (attempt == 0) {
+                    input.readBytes(Integer.MAX_VALUE - 8);
+                } else {
+                    input.readUtf8(Integer.MAX_VALUE - 8);
+                }
+                Assert.fail();
+            } catch (DeserializationException e) {
+                Assert.assertEquals("Deserialization exception: unexpected end of input", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.artemdvn.core;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.Fixtures;
+import com.github.artemdvn.domain.Car;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class SwarUnitTests {
+
+    @Test
+    public void testReadWordAtEveryOffset() {
+        byte[] bytes = new byte[19];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (0xF7 - i * 13);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        //up to the last word that ends on the last byte
+        for (int index = 0; index <= bytes.length - Swar.WORD_BYTES; index++) {
+            Assert.assertEquals("offset " + index, buffer.getLong(index), Swar.readWord(bytes, index));
+        }
+    }
+
+    @Test
+    public void testEqualToFlagsNothingWithoutAMatch() {
+        for (int target = 0; target < 256; target++) {
+            for (int fill = 0; fill < 256; fill++) {
+                long flags = Swar.equalTo(Swar.pattern(fill), Swar.pattern(target));
+                Assert.assertEquals(target + " in " + fill, fill == target, flags != 0);
+            }
+        }
+    }
+
+    @Test
+    public void testFirstIndexIsTheLowestMatch() {
+        for (int target = 0; target < 256; target++) {
+            for (int fill = 0; fill < 256; fill += 17) {
+                if (fill == target) {
+                    continue;
+                }
+                for (int index = 0; index < Swar.WORD_BYTES; index++) {
+                    //the target at index and at the top byte, which may flag the bytes between them as well
+                    long word = Swar.pattern(fill) & ~(0xFFL << index * 8) | (long) target << index * 8;
+                    word = word & 0x00FFFFFFFFFFFFFFL | (long) target << 56;
+                    long flags = Swar.equalTo(word, Swar.pattern(target));
+                    Assert.assertEquals(target + " at " + index, index, Swar.firstIndex(flags));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLessThanAndHighBits() {
+        for (int bound = 0; bound <= 0x80; bound++) {
+            for (int value = 0; value < 256; value++) {
+                Assert.assertEquals(value + " < " + bound, value < bound, Swar.lessThan(Swar.pattern(value), bound) != 0);
+            }
+        }
+        for (int value = 0; value < 256; value++) {
+            Assert.assertEquals(value >= 0x80, Swar.highBits(Swar.pattern(value)) != 0);
+        }
+    }
+
+    @Test
+    public void testTextValuesEndingInThePartialLastWord() {
+        CustomSerializer customSerializer = new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.TEXT));
+        //the separator and the non-ASCII chars fall at every offset of the words and of the bytes after the last one
+        for (int length = 0; length < 3 * Swar.WORD_BYTES; length++) {
+            StringBuilder model = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                model.append(i % 5 == 4 ? 'é' : (char) ('a' + i));
+            }
+            Car car = Fixtures.setupCar();
+            car.setModel(model.toString());
+
+            Assert.assertEquals("length " + length, car, Fixtures.roundTrip(customSerializer, car));
+
+            Car last = new Car();
+            last.setModel(model.toString());
+            Assert.assertEquals("last value, length " + length, last, Fixtures.roundTrip(customSerializer, last));
+        }
+    }
+}
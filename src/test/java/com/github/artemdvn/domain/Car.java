@@ -1,5 +1,7 @@
 package com.github.artemdvn.domain;
 
+import com.github.artemdvn.annotation.CustomSerializable;
+import com.github.artemdvn.annotation.FieldId;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,16 +10,23 @@ import java.time.LocalDate;
 import java.util.Map;
 import java.util.Set;
 
+@CustomSerializable
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Car {
+    @FieldId(1)
     private String model;
+    @FieldId(2)
     private Integer power;
+    @FieldId(3)
     private EngineType engineType;
+    @FieldId(4)
     private boolean used;
 
+    @FieldId(5)
     private Set<CarOption> options;
+    @FieldId(6)
     private Map<String, Double> mileage;
 
     public enum EngineType {
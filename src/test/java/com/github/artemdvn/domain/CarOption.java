@@ -1,13 +1,18 @@
 package com.github.artemdvn.domain;
 
+import com.github.artemdvn.annotation.CustomSerializable;
+import com.github.artemdvn.annotation.FieldId;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+@CustomSerializable
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class CarOption {
+    @FieldId(1)
     private String option;
+    @FieldId(2)
     private double price;
 }
@@ -0,0 +1,13 @@
+package com.github.artemdvn.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+//no @Data: partners refer to each other, so generated equals/hashCode would recurse
+@Getter
+@Setter
+public class Driver {
+    private String name;
+    private Car car;
+    private Driver partner;
+}
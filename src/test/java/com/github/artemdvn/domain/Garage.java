@@ -0,0 +1,13 @@
+package com.github.artemdvn.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class Garage {
+    private String address;
+    private List<Car> cars;
+}
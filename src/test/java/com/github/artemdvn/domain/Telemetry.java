@@ -0,0 +1,35 @@
+package com.github.artemdvn.domain;
+
+import com.github.artemdvn.annotation.FieldId;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//no @CustomSerializable: a field of every primitive kind, always read and written through the runtime accessors
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Telemetry {
+    @FieldId(1)
+    private boolean running;
+    @FieldId(2)
+    private byte gear;
+    @FieldId(3)
+    private char grade;
+    @FieldId(4)
+    private short temperature;
+    @FieldId(5)
+    private int rpm;
+    @FieldId(6)
+    private long odometer;
+    @FieldId(7)
+    private float fuel;
+    @FieldId(8)
+    private double speed;
+    @FieldId(9)
+    private String unit;
+    @FieldId(10)
+    private List<Integer> samples;
+}
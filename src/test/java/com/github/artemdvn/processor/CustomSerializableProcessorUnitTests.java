@@ -0,0 +1,95 @@
+package com.github.artemdvn.processor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CustomSerializableProcessorUnitTests {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("processor");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testCodecIsGeneratedAndRegistered() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("Point",
+                "package sample;\n"
+                        + "@com.github.artemdvn.annotation.CustomSerializable\n"
+                        + "public class Point {\n"
+                        + "    int x;\n"
+                        + "    private String label;\n"
+                        + "    public String getLabel() { return label; }\n"
+                        + "    public void setLabel(String label) { this.label = label; }\n"
+                        + "}\n");
+
+        Assert.assertEquals(Collections.emptyList(), errors);
+        Assert.assertTrue(Files.exists(directory.resolve("classes/sample/Point_Codec.class")));
+        Assert.assertEquals(Collections.singletonList("sample.Point_Codec"), Files.readAllLines(
+                directory.resolve("classes/META-INF/services/com.github.artemdvn.core.GeneratedCodec")));
+    }
+
+    @Test
+    public void testFinalFieldsAreRejected() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("Constant",
+                "package sample;\n"
+                        + "@com.github.artemdvn.annotation.CustomSerializable\n"
+                        + "public class Constant {\n"
+                        + "    private final int value = 1;\n"
+                        + "}\n");
+
+        Assert.assertEquals(1, errors.size());
+        Assert.assertEquals("final fields are not supported by generated codecs", errors.get(0).getMessage(null));
+    }
+
+    //compiles the class with only this processor, returns the errors
+    private List<Diagnostic<? extends JavaFileObject>> compile(String className, String source) throws IOException {
+        Path sourceFile = directory.resolve("sources/sample/" + className + ".java");
+        Path classes = directory.resolve("classes");
+        Files.createDirectories(sourceFile.getParent());
+        Files.createDirectories(classes);
+        Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                    "-processor", CustomSerializableProcessor.class.getName(),
+                    "-d", classes.toString(), "-s", classes.toString());
+            compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(sourceFile.toFile())).call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .collect(Collectors.toList());
+    }
+}
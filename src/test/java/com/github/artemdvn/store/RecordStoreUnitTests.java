@@ -0,0 +1,209 @@
+package com.github.artemdvn.store;
+
+import com.github.artemdvn.CustomSerializer;
+import com.github.artemdvn.core.Format;
+import com.github.artemdvn.core.SerializerOptions;
+import com.github.artemdvn.domain.Car;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RecordStoreUnitTests {
+
+    private static final long SEGMENT_SIZE = 16 * 1024;
+
+    private final CustomSerializer customSerializer =
+            new CustomSerializer(SerializerOptions.DEFAULT.withFormat(Format.BINARY));
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("record-store");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        List<Car> cars = setupCars(2000);
+
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            for (int i = 0; i < cars.size(); i++) {
+                Assert.assertEquals(i, store.append(cars.get(i)));
+            }
+
+            Assert.assertEquals(cars.size(), store.size());
+            Assert.assertEquals(cars.get(0), store.get(0));
+            Assert.assertEquals(cars.get(1234), store.get(1234));
+            Assert.assertEquals(cars.get(1999), store.get(1999));
+            try (Stream<Car> stream = store.stream()) {
+                Assert.assertEquals(cars, stream.collect(Collectors.toList()));
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertTrue(files.filter(file -> file.toString().endsWith(Segment.DATA_SUFFIX)).count() > 1);
+        }
+    }
+
+    @Test
+    public void testReopenRecoversUnindexedRecords() throws IOException {
+        List<Car> cars = setupCars(500);
+
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            for (Car car : cars.subList(0, 400)) {
+                store.append(car);
+            }
+            store.flush();
+            for (Car car : cars.subList(400, 500)) {
+                store.append(car);
+            }
+        }
+        Path lastSegment;
+        try (Stream<Path> files = Files.list(directory)) {
+            lastSegment = files.filter(file -> file.toString().endsWith(Segment.DATA_SUFFIX))
+                    .max(Comparator.naturalOrder())
+                    .get();
+        }
+        //a torn write: length prefix of a record that never made it to the file
+        Files.write(lastSegment, new byte[]{100, 1, 2}, StandardOpenOption.APPEND);
+        Files.delete(lastSegment.resolveSibling(lastSegment.getFileName().toString()
+                .replace(Segment.DATA_SUFFIX, Segment.INDEX_SUFFIX)));
+
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            Assert.assertEquals(cars.size(), store.size());
+            Assert.assertEquals(cars.get(499), store.get(499));
+
+            Car car = new Car();
+            car.setModel("After reopen");
+            Assert.assertEquals(cars.size(), store.append(car));
+            Assert.assertEquals(car, store.get(cars.size()));
+        }
+    }
+
+    @Test
+    public void testReopenCutsOffIndexedRecordTornAtEveryByte() throws IOException {
+        List<Car> cars = setupCars(3);
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            for (Car car : cars) {
+                store.append(car);
+            }
+        }
+        Path segment = dataFiles().get(0);
+        byte[] data = Files.readAllBytes(segment);
+        int lastStart = data.length - customSerializer.serializedSize(cars.get(2)) - 1;
+        byte[] index = Files.readAllBytes(indexFile(segment));
+
+        //the index names the last record, but the data file ends anywhere inside its frame
+        for (int end = lastStart; end < data.length; end++) {
+            Files.write(segment, Arrays.copyOf(data, end));
+            Files.write(indexFile(segment), index);
+
+            try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+                Assert.assertEquals("cut at " + end, 2, store.size());
+                try (Stream<Car> stream = store.stream()) {
+                    Assert.assertEquals(cars.subList(0, 2), stream.collect(Collectors.toList()));
+                }
+            }
+            Assert.assertEquals(lastStart, Files.size(segment));
+        }
+
+        //a garbled length prefix claiming more than the rest of the file
+        data[lastStart] = (byte) 0xFF;
+        Files.write(segment, data);
+        Files.write(indexFile(segment), index);
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            Assert.assertEquals(2, store.size());
+            Assert.assertEquals(2, store.append(cars.get(2)));
+        }
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, SEGMENT_SIZE)) {
+            Assert.assertEquals(cars.get(2), store.get(2));
+        }
+    }
+
+    @Test
+    public void testSegmentRoll() throws IOException {
+        List<Car> cars = setupCars(200);
+        long segmentSize = 3 * (customSerializer.serializedSize(cars.get(150)) + 1);
+
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, segmentSize)) {
+            for (Car car : cars) {
+                store.append(car);
+            }
+            for (int i = 0; i < cars.size(); i++) {
+                Assert.assertEquals(cars.get(i), store.get(i));
+            }
+            try {
+                Car large = new Car();
+                large.setModel(String.join("", Collections.nCopies((int) segmentSize, "x")));
+                store.append(large);
+                Assert.fail("a record larger than a segment is refused");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+
+        //a segment never grows past the size and is named after the number of its first record
+        List<Path> segments = dataFiles();
+        Assert.assertTrue(segments.size() > 60);
+        for (Path segment : segments) {
+            Assert.assertTrue(Files.size(segment) <= segmentSize);
+        }
+        Assert.assertEquals(0, Segment.baseRecordNumber(segments.get(0)));
+
+        try (RecordStore<Car> store = new RecordStore<>(directory, Car.class, customSerializer, segmentSize)) {
+            Assert.assertEquals(cars.size(), store.size());
+            Assert.assertEquals(cars.get(123), store.get(123));
+            try (Stream<Car> stream = store.stream()) {
+                Assert.assertEquals(cars, stream.collect(Collectors.toList()));
+            }
+            Assert.assertEquals(cars.size(), store.append(cars.get(0)));
+        }
+        Assert.assertEquals(segments.size() + 1, dataFiles().size());
+    }
+
+    private List<Path> dataFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(Segment.DATA_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Path indexFile(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName().toString()
+                .replace(Segment.DATA_SUFFIX, Segment.INDEX_SUFFIX));
+    }
+
+    private static List<Car> setupCars(int count) {
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Car car = new Car();
+            car.setModel("Model " + i);
+            car.setPower(i);
+            car.setEngineType(Car.EngineType.values()[i % Car.EngineType.values().length]);
+            car.setUsed(i % 2 == 0);
+            cars.add(car);
+        }
+        return cars;
+    }
+}